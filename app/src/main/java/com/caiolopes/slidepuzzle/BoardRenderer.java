@@ -0,0 +1,224 @@
+package com.caiolopes.slidepuzzle;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Paint.FontMetrics;
+import android.graphics.Paint.Style;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+/**
+ * The Class BoardRenderer. It draws the places of a puzzle board onto a
+ * canvas, for both the board views. The tiles are drawn once into an
+ * atlas bitmap whenever the size of the places changes, and copied from
+ * it when drawn, so that drawing allocates nothing.
+ *
+ * @see BoardView
+ * @see BoardSurfaceView
+ * @author Caio Lopes
+ * @version 1.0 $
+ */
+class BoardRenderer {
+
+	/** The board size. */
+	private final int size;
+
+	/** The width of a place. */
+	private float width;
+
+	/** The height of a place. */
+	private float height;
+
+	/** The paint of the background. */
+	private final Paint background;
+
+	/** The paint of the grid lines and the blank place. */
+	private final Paint dark;
+
+	/** The paint of the tile numbers. */
+	private final Paint foreground;
+
+	/** The label of each tile, indexed by tile number. */
+	private final String[] labels;
+
+	/**
+	 * The atlas of the tiles, each drawn at the place it has on the solved
+	 * board; null until the size of the places is known.
+	 */
+	private Bitmap atlas;
+
+	/** The area of a tile in the atlas. */
+	private final Rect source = new Rect();
+
+	/** The area of a place on the canvas. */
+	private final RectF target = new RectF();
+
+	/**
+	 * Instantiates a new board renderer.
+	 *
+	 * @param resources
+	 *            the resources holding the colors
+	 * @param size
+	 *            the board size
+	 */
+	BoardRenderer(Resources resources, int size) {
+		this.size = size;
+		background = new Paint();
+		background.setColor(resources.getColor(R.color.board_color));
+		dark = new Paint();
+		dark.setColor(resources.getColor(R.color.tile_color));
+		dark.setStrokeWidth(15);
+		foreground = new Paint(Paint.ANTI_ALIAS_FLAG);
+		foreground.setColor(resources.getColor(R.color.tile_color));
+		foreground.setStyle(Style.FILL);
+		foreground.setTextAlign(Paint.Align.CENTER);
+		labels = new String[size * size];
+		for (int i = 1; i < labels.length; i++) {
+			labels[i] = Integer.toString(i);
+		}
+	}
+
+	/**
+	 * Sets the size of a place and draws the atlas of the tiles.
+	 *
+	 * @param width
+	 *            the width of a place
+	 * @param height
+	 *            the height of a place
+	 */
+	void setPlaceSize(float width, float height) {
+		this.width = width;
+		this.height = height;
+		recycle();
+		if (width < 1 || height < 1) {
+			return;
+		}
+		atlas = Bitmap.createBitmap((int) width * size, (int) height * size,
+				Bitmap.Config.ARGB_8888);
+		Canvas canvas = new Canvas(atlas);
+		foreground.setTextSize(height * 0.75f);
+		foreground.setTextScaleX(width / height);
+		FontMetrics fm = foreground.getFontMetrics();
+		float x = width / 2;
+		float y = (height / 2) - (fm.ascent + fm.descent) / 2;
+		for (int number = 1; number < labels.length; number++) {
+			float left = ((number - 1) % size) * width;
+			float top = ((number - 1) / size) * height;
+			canvas.drawRect(left, top, left + width, top + height, background);
+			canvas.drawText(labels[number], left + x, top + y, foreground);
+		}
+	}
+
+	/**
+	 * Releases the atlas of the tiles.
+	 */
+	void recycle() {
+		if (atlas != null) {
+			atlas.recycle();
+			atlas = null;
+		}
+	}
+
+	/**
+	 * Is the renderer ready to draw, i.e., is the size of a place known?
+	 *
+	 * @return true, if ready
+	 */
+	boolean ready() {
+		return atlas != null;
+	}
+
+	/**
+	 * Gets the width of a place.
+	 *
+	 * @return the width
+	 */
+	float width() {
+		return width;
+	}
+
+	/**
+	 * Gets the height of a place.
+	 *
+	 * @return the height
+	 */
+	float height() {
+		return height;
+	}
+
+	/**
+	 * Draws the background of the given area.
+	 *
+	 * @param canvas
+	 *            the canvas
+	 * @param area
+	 *            the area
+	 */
+	void drawBackground(Canvas canvas, Rect area) {
+		canvas.drawRect(area, background);
+	}
+
+	/**
+	 * Draws the given tile, or the blank if the number is 0, at the place
+	 * of the given 0-based column and row.
+	 *
+	 * @param canvas
+	 *            the canvas
+	 * @param column
+	 *            the column
+	 * @param row
+	 *            the row
+	 * @param number
+	 *            the tile number, or 0 for the blank
+	 */
+	void drawPlace(Canvas canvas, int column, int row, int number) {
+		if (number > 0) {
+			drawTile(canvas, number, column * width, row * height);
+		} else {
+			target.set(column * width, row * height, column * width + width,
+					row * height + height);
+			canvas.drawRect(target, dark);
+		}
+	}
+
+	/**
+	 * Draws the given tile with its top left corner at the given point.
+	 *
+	 * @param canvas
+	 *            the canvas
+	 * @param number
+	 *            the tile number
+	 * @param left
+	 *            the left of the tile
+	 * @param top
+	 *            the top of the tile
+	 */
+	void drawTile(Canvas canvas, int number, float left, float top) {
+		int index = number - 1;
+		int atlasLeft = (int) ((index % size) * width);
+		int atlasTop = (int) ((index / size) * height);
+		source.set(atlasLeft, atlasTop, (int) (atlasLeft + width),
+				(int) (atlasTop + height));
+		target.set(left, top, left + width, top + height);
+		canvas.drawBitmap(atlas, source, target, null);
+	}
+
+	/**
+	 * Draws the major grid lines over the given width and height.
+	 *
+	 * @param canvas
+	 *            the canvas
+	 * @param w
+	 *            the width of the board
+	 * @param h
+	 *            the height of the board
+	 */
+	void drawGrid(Canvas canvas, int w, int h) {
+		for (int i = 0; i < size; i++) {
+			canvas.drawLine(0, i * height, w, i * height, dark);
+			canvas.drawLine(i * width, 0, i * width, h, dark);
+		}
+	}
+}
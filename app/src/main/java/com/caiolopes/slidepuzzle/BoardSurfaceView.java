@@ -0,0 +1,381 @@
+package com.caiolopes.slidepuzzle;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.view.MotionEvent;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+import com.caiolopes.slidepuzzle.model.Board;
+import com.caiolopes.slidepuzzle.model.Place;
+
+/**
+ * The Class BoardSurfaceView. It displays the puzzle board like
+ * {@link BoardView}, but draws on a dedicated render thread and animates
+ * each slide, of a single tile or of a line of tiles. The slides
+ * reported to the board change listener on the UI thread are passed to
+ * the render thread through a lock-free {@link SlideQueue}; the render
+ * thread keeps its own copy of the arrangement of the tiles, updated from
+ * the slides, so that it never reads the board while the UI thread
+ * changes it. Touches are handled on the UI thread, which never waits for
+ * drawing.
+ *
+ * @see BoardRenderer
+ * @author Caio Lopes
+ * @version 1.0 $
+ */
+public class BoardSurfaceView extends SurfaceView implements
+		SurfaceHolder.Callback {
+
+	/** The duration of a slide animation, in nanoseconds. */
+	private static final long SLIDE_NANOS = 120000000L;
+
+	/** The number of slides the queue holds. */
+	private static final int QUEUE_CAPACITY = 256;
+
+	/** The board. */
+	private final Board board;
+
+	/** The board size. */
+	private final int size;
+
+	/** The slides not yet animated. */
+	private final SlideQueue slides = new SlideQueue(QUEUE_CAPACITY);
+
+	/**
+	 * The arrangement to draw instead of following the slides, when the
+	 * queue overflowed.
+	 */
+	private final AtomicReference<Snapshot> snapshot = new AtomicReference<Snapshot>();
+
+	/** The arrangement drawn; owned by the render thread. */
+	private int[] tiles;
+
+	/** The renderer of the places; owned by the render thread. */
+	private final BoardRenderer renderer;
+
+	/** The area of a frame; owned by the render thread. */
+	private final Rect area = new Rect();
+
+	/** The gesture sliding the tiles touched. */
+	private final SlideGesture gesture;
+
+	/** The render thread, or null if the surface does not exist. */
+	private volatile Thread renderThread;
+
+	/** The width of the surface. */
+	private volatile int surfaceWidth;
+
+	/** The height of the surface. */
+	private volatile int surfaceHeight;
+
+	/** Queues the slides of the board, on the UI thread. */
+	private final Board.BoardChangeListener boardChangeListener = new Board.BoardChangeListener() {
+		public void tileSlid(Place from, Place to, int numOfMoves) {
+			queue(from, to);
+		}
+
+		public void tilesSlid(Place from, Place to, int numOfMoves) {
+			queue(from, to);
+		}
+
+		public void solved(int numOfMoves) {
+			// the last slide is already queued
+		}
+	};
+
+	/**
+	 * Instantiates a new board surface view.
+	 *
+	 * @param context
+	 *            the context
+	 * @param board
+	 *            the board
+	 */
+	public BoardSurfaceView(Context context, Board board) {
+		super(context);
+		this.board = board;
+		this.size = board.size();
+		setFocusable(true);
+		setFocusableInTouchMode(true);
+		renderer = new BoardRenderer(getResources(), size);
+		gesture = new SlideGesture(board);
+		getHolder().addCallback(this);
+	}
+
+	/**
+	 * Queues the slide of the tiles from the given place to the given
+	 * place, on the UI thread.
+	 *
+	 * @param from
+	 *            the place the tiles left
+	 * @param to
+	 *            the place the tiles reached
+	 */
+	private void queue(Place from, Place to) {
+		if (!slides.offer(SlideQueue.pack(index(from), index(to)))) {
+			// the render thread fell behind; let it catch up at once
+			snapshot.set(new Snapshot(board.arrangement(), slides.count()));
+		}
+		LockSupport.unpark(renderThread);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see android.view.View#onAttachedToWindow()
+	 */
+	@Override
+	protected void onAttachedToWindow() {
+		super.onAttachedToWindow();
+		tiles = board.arrangement();
+		board.addBoardChangeListener(boardChangeListener);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see android.view.View#onDetachedFromWindow()
+	 */
+	@Override
+	protected void onDetachedFromWindow() {
+		board.removeBoardChangeListener(boardChangeListener);
+		super.onDetachedFromWindow();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * android.view.SurfaceHolder.Callback#surfaceCreated(android.view.SurfaceHolder
+	 * )
+	 */
+	@Override
+	public void surfaceCreated(SurfaceHolder holder) {
+		renderThread = new Thread("BoardRenderer") {
+			public void run() {
+				render();
+			}
+		};
+		renderThread.start();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * android.view.SurfaceHolder.Callback#surfaceChanged(android.view.SurfaceHolder
+	 * , int, int, int)
+	 */
+	@Override
+	public void surfaceChanged(SurfaceHolder holder, int format, int width,
+			int height) {
+		surfaceWidth = width;
+		surfaceHeight = height;
+		LockSupport.unpark(renderThread);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * android.view.SurfaceHolder.Callback#surfaceDestroyed(android.view.SurfaceHolder
+	 * )
+	 */
+	@Override
+	public void surfaceDestroyed(SurfaceHolder holder) {
+		Thread thread = renderThread;
+		renderThread = null;
+		LockSupport.unpark(thread);
+		boolean interrupted = false;
+		while (thread.isAlive()) {
+			try {
+				thread.join(); // the surface must not be drawn after return
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Renders frames until the surface is destroyed. A frame is drawn
+	 * while a slide is animated or after a change, and the thread parks
+	 * otherwise. Posting a frame waits for the display, so that slides
+	 * are animated at its refresh rate.
+	 */
+	private void render() {
+		Thread self = Thread.currentThread();
+		int width = 0;
+		int height = 0;
+		int slide = -1; // the slide animated
+		long start = 0; // the time the animation started
+		boolean changed = true;
+		while (renderThread == self) {
+			if (surfaceWidth != width || surfaceHeight != height) {
+				width = surfaceWidth;
+				height = surfaceHeight;
+				renderer.setPlaceSize(width / size, height / size);
+				changed = true;
+			}
+			Snapshot s = snapshot.getAndSet(null);
+			if (s != null) {
+				tiles = s.tiles;
+				slides.skipTo(s.count);
+				slide = -1;
+				changed = true;
+			}
+			long now = System.nanoTime();
+			// the more slides wait, the faster each is animated
+			long duration = SLIDE_NANOS / (1 + slides.size());
+			if (slide >= 0 && now - start >= duration) {
+				slide = -1;
+				changed = true;
+			}
+			if (slide < 0) {
+				slide = slides.poll();
+				if (slide >= 0) {
+					int from = SlideQueue.from(slide);
+					int step = step(from, SlideQueue.to(slide));
+					for (int i = SlideQueue.to(slide); i != from; i -= step) {
+						tiles[i] = tiles[i - step];
+					}
+					tiles[from] = 0;
+					start = now;
+				}
+			}
+			if (slide < 0 && !changed) {
+				LockSupport.park(this);
+				continue;
+			}
+			if (renderer.ready()) {
+				float t = slide < 0 ? 1 : Math.min(1f, (float) (now - start)
+						/ duration);
+				draw(slide, t * (2 - t), width, height); // eased out
+			}
+			changed = false;
+		}
+		renderer.recycle();
+	}
+
+	/**
+	 * Draws a frame, with the given slide at the given fraction of its
+	 * animation.
+	 *
+	 * @param slide
+	 *            the packed slide, or -1 if none
+	 * @param fraction
+	 *            the fraction of the animation, from 0 to 1
+	 * @param width
+	 *            the width of the surface
+	 * @param height
+	 *            the height of the surface
+	 */
+	private void draw(int slide, float fraction, int width, int height) {
+		SurfaceHolder holder = getHolder();
+		Canvas canvas = holder.lockCanvas();
+		if (canvas == null) {
+			return;
+		}
+		try {
+			canvas.getClipBounds(area);
+			renderer.drawBackground(canvas, area);
+			for (int i = 0; i < tiles.length; i++) {
+				renderer.drawPlace(canvas, i % size, i / size, tiles[i]);
+			}
+			if (slide >= 0) {
+				// draw the tiles slid between the places they left and reached
+				int from = SlideQueue.from(slide);
+				int to = SlideQueue.to(slide);
+				int step = step(from, to);
+				for (int i = from + step; i != to + step; i += step) {
+					renderer.drawPlace(canvas, i % size, i / size, 0);
+				}
+				float dx = (step == 1 ? -1 : step == -1 ? 1 : 0)
+						* (1 - fraction);
+				float dy = (step == size ? -1 : step == -size ? 1 : 0)
+						* (1 - fraction);
+				for (int i = from + step; i != to + step; i += step) {
+					renderer.drawTile(canvas, tiles[i], (i % size + dx)
+							* renderer.width(), (i / size + dy)
+							* renderer.height());
+				}
+			}
+			renderer.drawGrid(canvas, width, height);
+		} finally {
+			holder.unlockCanvasAndPost(canvas);
+		}
+	}
+
+	/**
+	 * Gets the row-major index of the given place.
+	 *
+	 * @param p
+	 *            the place
+	 * @return the index
+	 */
+	private int index(Place p) {
+		return (p.getY() - 1) * size + p.getX() - 1;
+	}
+
+	/**
+	 * Gets the difference of the row-major indices of two adjacent places
+	 * on the line from the given place to the given place.
+	 *
+	 * @param from
+	 *            the index of a place
+	 * @param to
+	 *            the index of another place, in the same row or column
+	 * @return the step from a place to the next towards to
+	 */
+	private int step(int from, int to) {
+		if (from / size == to / size) {
+			return from < to ? 1 : -1;
+		}
+		return from < to ? size : -size;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see android.view.View#onTouchEvent(android.view.MotionEvent)
+	 */
+	@Override
+	public boolean onTouchEvent(MotionEvent event) {
+		if (gesture.onTouchEvent(event, (float) getWidth() / size,
+				(float) getHeight() / size))
+			return true;
+		return super.onTouchEvent(event);
+	}
+
+	/**
+	 * The Class Snapshot. An arrangement of the tiles, taken after the
+	 * given number of slides were queued.
+	 */
+	private static class Snapshot {
+
+		/** The arrangement. */
+		final int[] tiles;
+
+		/** The number of slides queued before it was taken. */
+		final long count;
+
+		/**
+		 * Instantiates a new snapshot.
+		 *
+		 * @param tiles
+		 *            the arrangement
+		 * @param count
+		 *            the number of slides queued
+		 */
+		Snapshot(int[] tiles, long count) {
+			this.tiles = tiles;
+			this.count = count;
+		}
+	}
+}
@@ -1,21 +1,23 @@
 package com.caiolopes.slidepuzzle;
 
-import java.util.Iterator;
-
 import android.content.Context;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
-import android.graphics.Paint;
-import android.graphics.Paint.FontMetrics;
-import android.graphics.Paint.Style;
+import android.graphics.Rect;
 import android.view.MotionEvent;
 import android.view.View;
 import com.caiolopes.slidepuzzle.model.Board;
 import com.caiolopes.slidepuzzle.model.Place;
-import com.caiolopes.slidepuzzle.R;
 
 /**
  * The Class BoardView. It uses 2-D graphics to display the puzzle board.
+ * The board is drawn into a bitmap, and after a slide only the places
+ * involved are redrawn into it; the view then draws the whole bitmap at
+ * once. Hardware accelerated views are redrawn whole on every
+ * invalidation, so a slide costs a single bitmap copy rather than
+ * drawing every place.
  * 
+ * @see BoardRenderer
  * @author Caio Lopes
  * @version 1.0 $
  */
@@ -30,6 +32,39 @@ public class BoardView extends View {
 	/** The height. */
 	private float height;
 
+	/** The renderer of the places. */
+	private final BoardRenderer renderer;
+
+	/** The area of the view. */
+	private final Rect bounds = new Rect();
+
+	/**
+	 * The drawing of the board, updated as the tiles slide; null until the
+	 * size of the view is known, or while the view is detached.
+	 */
+	private Bitmap frame;
+
+	/** The canvas drawing into the frame. */
+	private Canvas frameCanvas;
+
+	/** The gesture sliding the tiles touched. */
+	private final SlideGesture gesture;
+
+	/** Redraws the places of each slide. */
+	private final Board.BoardChangeListener boardChangeListener = new Board.BoardChangeListener() {
+		public void tileSlid(Place from, Place to, int numOfMoves) {
+			redrawPlaces(from, to);
+		}
+
+		public void tilesSlid(Place from, Place to, int numOfMoves) {
+			redrawPlaces(from, to);
+		}
+
+		public void solved(int numOfMoves) {
+			// the last slide is already redrawn
+		}
+	};
+
 	/**
 	 * Instantiates a new board view.
 	 *
@@ -43,6 +78,32 @@ public class BoardView extends View {
 		this.board = board;
 		setFocusable(true);
 		setFocusableInTouchMode(true);
+		renderer = new BoardRenderer(getResources(), board.size());
+		gesture = new SlideGesture(board);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see android.view.View#onAttachedToWindow()
+	 */
+	@Override
+	protected void onAttachedToWindow() {
+		super.onAttachedToWindow();
+		board.addBoardChangeListener(boardChangeListener);
+		prepare(); // the view keeps its size when attached again
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see android.view.View#onDetachedFromWindow()
+	 */
+	@Override
+	protected void onDetachedFromWindow() {
+		board.removeBoardChangeListener(boardChangeListener);
+		release();
+		super.onDetachedFromWindow();
 	}
 
 	/*
@@ -55,22 +116,87 @@ public class BoardView extends View {
 		this.width = w / this.board.size();
 		this.height = h / this.board.size();
 		super.onSizeChanged(w, h, oldw, oldh);
+		prepare();
+	}
+
+	/**
+	 * Draws the atlas of the tiles and the frame for the size of the view,
+	 * if known.
+	 */
+	private void prepare() {
+		release();
+		renderer.setPlaceSize(width, height);
+		if (!renderer.ready()) {
+			return;
+		}
+		bounds.set(0, 0, getWidth(), getHeight());
+		frame = Bitmap.createBitmap(bounds.width(), bounds.height(),
+				Bitmap.Config.ARGB_8888);
+		frameCanvas = new Canvas(frame);
+		renderer.drawBackground(frameCanvas, bounds);
+		int size = board.size();
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				drawPlace(i, j);
+			}
+		}
+		renderer.drawGrid(frameCanvas, bounds.width(), bounds.height());
+		invalidate();
+	}
+
+	/**
+	 * Releases the atlas of the tiles and the frame.
+	 */
+	private void release() {
+		renderer.recycle();
+		if (frame != null) {
+			frame.recycle();
+			frame = null;
+			frameCanvas = null;
+		}
 	}
 
 	/**
-	 * Locate place.
+	 * Draws the place of the given 0-based column and row into the frame.
 	 *
-	 * @param x
-	 *            the x
-	 * @param y
-	 *            the y
-	 * @return the place
+	 * @param column
+	 *            the column
+	 * @param row
+	 *            the row
 	 */
-	private Place locatePlace(float x, float y) {
-		int ix = (int) (x / width);
-		int iy = (int) (y / height);
+	private void drawPlace(int column, int row) {
+		Place p = board.at(column + 1, row + 1);
+		renderer.drawPlace(frameCanvas, column, row,
+				p.hasTile() ? p.getTile().number() : 0);
+	}
 
-		return board.at(ix + 1, iy + 1);
+	/**
+	 * Redraws the given places and those between them into the frame, and
+	 * invalidates their area.
+	 *
+	 * @param from
+	 *            a place
+	 * @param to
+	 *            the other place
+	 */
+	private void redrawPlaces(Place from, Place to) {
+		if (frame == null) {
+			return; // drawn whole once the size is known
+		}
+		int firstX = Math.min(from.getX(), to.getX()) - 1;
+		int lastX = Math.max(from.getX(), to.getX()) - 1;
+		int firstY = Math.min(from.getY(), to.getY()) - 1;
+		int lastY = Math.max(from.getY(), to.getY()) - 1;
+		for (int i = firstX; i <= lastX; i++) {
+			for (int j = firstY; j <= lastY; j++) {
+				drawPlace(i, j);
+			}
+		}
+
+		// Draw the major grid lines over the tiles
+		renderer.drawGrid(frameCanvas, bounds.width(), bounds.height());
+		invalidate((int) (firstX * width), (int) (firstY * height),
+				(int) ((lastX + 1) * width), (int) ((lastY + 1) * height));
 	}
 
 	/*
@@ -80,14 +206,9 @@ public class BoardView extends View {
 	 */
 	@Override
 	public boolean onTouchEvent(MotionEvent event) {
-		if (event.getAction() != MotionEvent.ACTION_DOWN)
-			return super.onTouchEvent(event);
-		Place p = locatePlace(event.getX(), event.getY());
-		if (p != null && p.slidable() && !board.solved()) {
-			p.slide();
-			invalidate();
-		}
-		return true;
+		if (gesture.onTouchEvent(event, width, height))
+			return true;
+		return super.onTouchEvent(event);
 	}
 
 	/*
@@ -97,46 +218,8 @@ public class BoardView extends View {
 	 */
 	@Override
 	protected void onDraw(Canvas canvas) {
-		Paint background = new Paint();
-		background.setColor(getResources().getColor(R.color.board_color));
-		canvas.drawRect(0, 0, getWidth(), getHeight(), background);
-
-		Paint dark = new Paint();
-		dark.setColor(getResources().getColor(R.color.tile_color));
-		dark.setStrokeWidth(15);
-
-		// Draw the major grid lines
-		for (int i = 0; i < this.board.size(); i++) {
-			canvas.drawLine(0, i * height, getWidth(), i * height, dark);
-			canvas.drawLine(i * width, 0, i * width, getHeight(), dark);
-		}
-
-		Paint foreground = new Paint(Paint.ANTI_ALIAS_FLAG);
-		foreground.setColor(getResources().getColor(R.color.tile_color));
-		foreground.setStyle(Style.FILL);
-		foreground.setTextSize(height * 0.75f);
-		foreground.setTextScaleX(width / height);
-		foreground.setTextAlign(Paint.Align.CENTER);
-
-		float x = width / 2;
-		FontMetrics fm = foreground.getFontMetrics();
-		float y = (height / 2) - (fm.ascent + fm.descent) / 2;
-
-		Iterator<Place> it = board.places().iterator();
-		for (int i = 0; i < board.size(); i++) {
-			for (int j = 0; j < board.size(); j++) {
-				if (it.hasNext()) {
-					Place p = it.next();
-					if (p.hasTile()) {
-						String number = Integer.toString(p.getTile().number());
-						canvas.drawText(number, i * width + x, j * height + y,
-								foreground);
-					} else {
-						canvas.drawRect(i * width, j * height, i * width
-								+ width, j * height + height, dark);
-					}
-				}
-			}
+		if (frame != null) {
+			canvas.drawBitmap(frame, 0, 0, null);
 		}
 	}
 }
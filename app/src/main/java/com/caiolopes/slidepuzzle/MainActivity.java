@@ -1,5 +1,8 @@
 package com.caiolopes.slidepuzzle;
 
+import java.io.File;
+import java.io.IOException;
+
 import android.app.AlertDialog;
 import android.app.Dialog;
 import android.content.DialogInterface;
@@ -14,14 +17,19 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 import android.widget.Toast;
+import com.caiolopes.slidepuzzle.generator.Puzzle;
+import com.caiolopes.slidepuzzle.generator.PuzzlePack;
 import com.caiolopes.slidepuzzle.model.Board;
 import com.caiolopes.slidepuzzle.model.Place;
+import com.caiolopes.slidepuzzle.model.PuzzleRandom;
+import com.caiolopes.slidepuzzle.solver.Solvers;
 import com.caiolopes.slidepuzzle.R;
 
 /**
  * The Class MainActivity.
  * 
  * @see BoardView
+ * @see BoardSurfaceView
  * @see Board
  * @author Caio Lopes
  * @version 1.0 $
@@ -34,8 +42,14 @@ public class MainActivity extends ActionBarActivity {
 	/** The game board. */
 	private Board board;
 
-	/** The board view that generates the tiles and lines using 2-D graphics. */
-	private BoardView boardView;
+	/**
+	 * The board view that generates the tiles and lines using 2-D graphics;
+	 * a BoardSurfaceView if slides are animated, or else a BoardView.
+	 */
+	private View boardView;
+
+	/** Whether slides are animated on a render thread. */
+	private boolean animated;
 
 	/** Text view to show the user the number of movements. */
 	private TextView moves;
@@ -43,6 +57,15 @@ public class MainActivity extends ActionBarActivity {
 	/** The board size. Default value is an 4x4 game. */
 	private int boardSize = 4;
 
+	/**
+	 * The pack of rated puzzles of the board size installed in the files
+	 * directory, or null if none is.
+	 */
+	private PuzzlePack pack;
+
+	/** Random source of the puzzles picked from the pack. */
+	private final PuzzleRandom random = new PuzzleRandom();
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -51,6 +74,9 @@ public class MainActivity extends ActionBarActivity {
 	@Override
 	protected void onCreate(Bundle savedInstanceState) {
 		super.onCreate(savedInstanceState);
+		// 4x4 hints use the pattern databases installed in the files
+		// directory, if any; see the databases task of the tools module
+		Solvers.setDatabaseDirectory(getFilesDir());
 		setContentView(R.layout.activity_main);
 		mainView = (ViewGroup) findViewById(R.id.mainLayout);
 		moves = (TextView) findViewById(R.id.moves);
@@ -77,11 +103,59 @@ public class MainActivity extends ActionBarActivity {
 	private void newGame() {
 		this.board = new Board(this.boardSize);
 		this.board.addBoardChangeListener(boardChangeListener);
-		this.board.rearrange();
+		this.pack = loadPack(this.boardSize);
+		this.rearrange();
+		this.showBoard();
+		this.moves.setText("Number of movements: 0");
+	}
+
+	/**
+	 * Rearranges the board as a puzzle picked at random from the pack of
+	 * its size, if any, or else as a random arrangement. A puzzle of the
+	 * pack is recreated from its seed, as the pack was built from it.
+	 */
+	private void rearrange() {
+		if (this.pack != null && this.pack.count() > 0) {
+			Puzzle puzzle = this.pack.get(random.nextInt(this.pack.count()));
+			this.board.rearrange(puzzle.seed());
+		} else {
+			this.board.rearrange();
+		}
+	}
+
+	/**
+	 * Loads the pack of puzzles of the given size from the files
+	 * directory, where the pack task of the tools module writes
+	 * <code>pack-&lt;size&gt;.bin</code>.
+	 *
+	 * @param size
+	 *            the board size
+	 * @return the pack, or null if none is installed or it is unreadable
+	 */
+	private PuzzlePack loadPack(int size) {
+		File file = new File(getFilesDir(), "pack-" + size + ".bin");
+		if (!file.isFile()) {
+			return null;
+		}
+		try {
+			PuzzlePack loaded = PuzzlePack.load(file);
+			return loaded.size() == size ? loaded : null;
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Shows the board in a new board view, animated or not.
+	 */
+	private void showBoard() {
 		this.mainView.removeView(boardView);
-		this.boardView = new BoardView(this, board);
+		if (this.animated) {
+			this.boardView = new BoardSurfaceView(this, board);
+		} else {
+			this.boardView = new BoardView(this, board);
+		}
 		this.mainView.addView(boardView);
-		this.moves.setText("Number of movements: 0");
 	}
 
 	/**
@@ -122,9 +196,9 @@ public class MainActivity extends ActionBarActivity {
 							new DialogInterface.OnClickListener() {
 								public void onClick(DialogInterface dialog,
 										int which) {
-									board.rearrange();
+									rearrange();
 									moves.setText("Number of movements: 0");
-									boardView.invalidate();
+									showBoard();
 								}
 							})
 					.setNegativeButton(android.R.string.no,
@@ -136,6 +210,11 @@ public class MainActivity extends ActionBarActivity {
 							}).setIcon(android.R.drawable.ic_dialog_alert)
 					.show();
 			break;
+		case R.id.action_animate:
+			this.animated = !this.animated;
+			item.setChecked(this.animated);
+			this.showBoard();
+			break;
 		case R.id.action_help:
 			new AlertDialog.Builder(this)
 					.setTitle("Instructions")
@@ -160,6 +239,10 @@ public class MainActivity extends ActionBarActivity {
 					+ Integer.toString(numOfMoves));
 		}
 
+		public void tilesSlid(Place from, Place to, int numOfMoves) {
+			tileSlid(from, to, numOfMoves);
+		}
+
 		public void solved(int numOfMoves) {
 			moves.setText("Solved in " + Integer.toString(numOfMoves)
 					+ " moves!");
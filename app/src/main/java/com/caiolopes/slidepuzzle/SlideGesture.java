@@ -0,0 +1,135 @@
+package com.caiolopes.slidepuzzle;
+
+import android.view.MotionEvent;
+import com.caiolopes.slidepuzzle.model.Board;
+import com.caiolopes.slidepuzzle.model.Place;
+
+/**
+ * The Class SlideGesture. It slides the tiles of a puzzle board touched
+ * in a board view. Pressing a tile next to the blank slides it at once;
+ * pressing a tile farther in the same row or column as the blank and
+ * dragging it towards the blank slides the whole line of tiles up to the
+ * blank, in a single board change.
+ *
+ * @see BoardView
+ * @see BoardSurfaceView
+ * @see Board#slideLine(int)
+ * @author Caio Lopes
+ * @version 1.0 $
+ */
+class SlideGesture {
+
+	/** The fraction of a place a tile must be dragged to slide its line. */
+	private static final float DRAG_FRACTION = 0.5f;
+
+	/** The board. */
+	private final Board board;
+
+	/** The index of the place pressed to drag its line, or -1 if none. */
+	private int pressed = -1;
+
+	/** The x of the point pressed. */
+	private float downX;
+
+	/** The y of the point pressed. */
+	private float downY;
+
+	/**
+	 * Instantiates a new slide gesture.
+	 *
+	 * @param board
+	 *            the board
+	 */
+	SlideGesture(Board board) {
+		this.board = board;
+	}
+
+	/**
+	 * Handles the given touch event; the slides are drawn by the board
+	 * change listener of the view.
+	 *
+	 * @param event
+	 *            the touch event
+	 * @param width
+	 *            the width of a place
+	 * @param height
+	 *            the height of a place
+	 * @return true, if the event was handled
+	 */
+	boolean onTouchEvent(MotionEvent event, float width, float height) {
+		switch (event.getAction()) {
+		case MotionEvent.ACTION_DOWN:
+			pressed = -1;
+			int i = locatePlace(event.getX() / width, event.getY() / height);
+			if (board.solved()) {
+				return true;
+			}
+			if (board.slidable(i)) {
+				board.at(i).slide();
+			} else if (board.inLine(i)) {
+				pressed = i;
+				downX = event.getX();
+				downY = event.getY();
+			}
+			return true;
+		case MotionEvent.ACTION_MOVE:
+		case MotionEvent.ACTION_UP:
+			if (pressed >= 0
+					&& dragged(event.getX() - downX, event.getY() - downY,
+							width, height) >= DRAG_FRACTION) {
+				board.slideLine(pressed);
+				pressed = -1;
+			}
+			if (event.getAction() == MotionEvent.ACTION_UP) {
+				pressed = -1;
+			}
+			return true;
+		case MotionEvent.ACTION_CANCEL:
+			pressed = -1;
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * Gets how far the pressed tile was dragged towards the blank.
+	 *
+	 * @param dx
+	 *            the x distance dragged
+	 * @param dy
+	 *            the y distance dragged
+	 * @param width
+	 *            the width of a place
+	 * @param height
+	 *            the height of a place
+	 * @return the distance, in places; negative if dragged away
+	 */
+	private float dragged(float dx, float dy, float width, float height) {
+		int size = board.size();
+		Place blank = board.blank();
+		int column = pressed % size + 1;
+		int row = pressed / size + 1;
+		if (blank.getY() == row) {
+			return (blank.getX() > column ? dx : -dx) / width;
+		}
+		return (blank.getY() > row ? dy : -dy) / height;
+	}
+
+	/**
+	 * Locate place. The coordinates are clamped to the board.
+	 *
+	 * @param x
+	 *            the x, in places
+	 * @param y
+	 *            the y, in places
+	 * @return the row-major index of the place
+	 */
+	private int locatePlace(float x, float y) {
+		int size = board.size();
+		int ix = Math.min(size - 1, Math.max(0, (int) x));
+		int iy = Math.min(size - 1, Math.max(0, (int) y));
+
+		return iy * size + ix;
+	}
+}
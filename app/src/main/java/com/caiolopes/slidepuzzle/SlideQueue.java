@@ -0,0 +1,140 @@
+package com.caiolopes.slidepuzzle;
+
+/**
+ * The Class SlideQueue. A bounded, lock-free queue of slides from a
+ * single producer thread to a single consumer thread, kept in a ring of
+ * <code>int</code>s. Each index is written by only one of the threads,
+ * and is volatile so that the other thread sees a slot only once it is
+ * written, and reuses it only once it is read. A slide is packed as the
+ * row-major indices of the places it moved from and to, 8 bits each; if
+ * the places are not adjacent, the slide moved the line of tiles between
+ * them, from included, one place towards to.
+ *
+ * @see BoardSurfaceView
+ * @author Caio Lopes
+ * @version 1.0 $
+ */
+final class SlideQueue {
+
+	/** The slides, in a ring whose length is a power of 2. */
+	private final int[] slides;
+
+	/** The number of slides ever taken; written by the consumer only. */
+	private volatile long head;
+
+	/** The number of slides ever put; written by the producer only. */
+	private volatile long tail;
+
+	/**
+	 * Instantiates a new slide queue.
+	 *
+	 * @param capacity
+	 *            the least number of slides the queue holds
+	 */
+	SlideQueue(int capacity) {
+		int length = 1;
+		while (length < capacity) {
+			length <<= 1;
+		}
+		slides = new int[length];
+	}
+
+	/**
+	 * Packs the given slide.
+	 *
+	 * @param from
+	 *            the index of the place the tiles left
+	 * @param to
+	 *            the index of the place the tiles reached
+	 * @return the packed slide
+	 */
+	static int pack(int from, int to) {
+		return (from << 8) | to;
+	}
+
+	/**
+	 * Gets the index of the place the tiles of the given packed slide left.
+	 *
+	 * @param slide
+	 *            the packed slide
+	 * @return the place index
+	 */
+	static int from(int slide) {
+		return (slide >>> 8) & 0xFF;
+	}
+
+	/**
+	 * Gets the index of the place the tiles of the given packed slide
+	 * reached.
+	 *
+	 * @param slide
+	 *            the packed slide
+	 * @return the place index
+	 */
+	static int to(int slide) {
+		return slide & 0xFF;
+	}
+
+	/**
+	 * Puts the given packed slide; called by the producer only.
+	 *
+	 * @param slide
+	 *            the packed slide
+	 * @return false, if the queue is full
+	 */
+	boolean offer(int slide) {
+		long t = tail;
+		if (t - head == slides.length) {
+			return false;
+		}
+		slides[(int) t & (slides.length - 1)] = slide;
+		tail = t + 1; // publishes the slot
+		return true;
+	}
+
+	/**
+	 * Takes the next packed slide; called by the consumer only.
+	 *
+	 * @return the packed slide, or -1 if the queue is empty
+	 */
+	int poll() {
+		long h = head;
+		if (h == tail) {
+			return -1;
+		}
+		int slide = slides[(int) h & (slides.length - 1)];
+		head = h + 1; // releases the slot
+		return slide;
+	}
+
+	/**
+	 * Skips the slides put before the given number of slides were put;
+	 * called by the consumer only.
+	 *
+	 * @param count
+	 *            the number of slides put
+	 */
+	void skipTo(long count) {
+		if (count > head) {
+			head = count;
+		}
+	}
+
+	/**
+	 * Gets the number of slides ever put; called by the producer only.
+	 *
+	 * @return the number of slides put
+	 */
+	long count() {
+		return tail;
+	}
+
+	/**
+	 * Gets the number of slides waiting in the queue.
+	 *
+	 * @return the number of slides
+	 */
+	int size() {
+		return (int) (tail - head);
+	}
+}
@@ -0,0 +1,59 @@
+package com.caiolopes.slidepuzzle.generator;
+
+import com.caiolopes.slidepuzzle.model.Board;
+
+/**
+ * A generated puzzle, rated by the length of its optimal solution. The
+ * arrangement of its tiles is kept as its rank, so that a puzzle takes
+ * a fixed, small amount of memory.
+ *
+ * @see Board#rank()
+ */
+public class Puzzle {
+
+    /** Dimension of the board. */
+    private final int size;
+
+    /** Rank of the arrangement of tiles. */
+    private final long rank;
+
+    /** Number of moves of an optimal solution. */
+    private final int length;
+
+    /** Seed from which the puzzle was generated. */
+    private final long seed;
+
+    /** Create a new puzzle of the given dimension, rank of arrangement,
+     * optimal solution length and seed. */
+    public Puzzle(int size, long rank, int length, long seed) {
+        this.size = size;
+        this.rank = rank;
+        this.length = length;
+        this.seed = seed;
+    }
+
+    /** Return a new board with the arrangement of this puzzle. */
+    public Board board() {
+        return Board.fromRank(size, rank);
+    }
+
+    /** Return the dimension of the board of this puzzle. */
+    public int size() {
+        return size;
+    }
+
+    /** Return the rank of the arrangement of tiles of this puzzle. */
+    public long rank() {
+        return rank;
+    }
+
+    /** Return the number of moves of an optimal solution. */
+    public int length() {
+        return length;
+    }
+
+    /** Return the seed from which this puzzle was generated. */
+    public long seed() {
+        return seed;
+    }
+}
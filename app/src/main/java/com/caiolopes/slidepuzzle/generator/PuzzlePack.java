@@ -0,0 +1,138 @@
+package com.caiolopes.slidepuzzle.generator;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+
+/**
+ * A pack of rated puzzles of one dimension, read from a file mapped
+ * into memory rather than generated at run time. The file has a header
+ * of three <code>int</code>s, a magic number, the dimension and the
+ * number of puzzles, followed by a fixed-width record for each puzzle:
+ * the rank of its arrangement as a <code>long</code>, its seed as a
+ * <code>long</code> and its optimal solution length as a byte. The
+ * puzzles are ordered by increasing length, so that those of a given
+ * difficulty are found by binary search.
+ */
+public class PuzzlePack {
+
+    /** Magic number of a pack file. */
+    private static final int MAGIC = 0x53504b31; // "SPK1"
+
+    /** Number of bytes of the header. */
+    private static final int HEADER_BYTES = 12;
+
+    /** Number of bytes of the record of a puzzle. */
+    private static final int RECORD_BYTES = 17;
+
+    /** Dimension of the boards. */
+    private final int size;
+
+    /** Number of puzzles. */
+    private final int count;
+
+    /** Records of the puzzles. */
+    private final ByteBuffer records;
+
+    /** Create a new pack of the given records. */
+    private PuzzlePack(int size, int count, ByteBuffer records) {
+        this.size = size;
+        this.count = count;
+        this.records = records;
+    }
+
+    /** Return the dimension of the boards of this pack. */
+    public int size() {
+        return size;
+    }
+
+    /** Return the number of puzzles of this pack. */
+    public int count() {
+        return count;
+    }
+
+    /** Return the puzzle of the given index. */
+    public Puzzle get(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        final int offset = index * RECORD_BYTES;
+        return new Puzzle(size, records.getLong(offset), length(index),
+                          records.getLong(offset + 8));
+    }
+
+    /** Return the index of the first puzzle whose optimal solution is
+     * at least the given length; the number of puzzles if none is. */
+    public int first(int length) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (length(middle) < length) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /** Return the optimal solution length of the puzzle of the given
+     * index. */
+    private int length(int index) {
+        return records.get(index * RECORD_BYTES + 16) & 0xFF;
+    }
+
+    /** Write a pack of the given puzzles of the given dimension, in
+     * order of increasing length, to the given file. */
+    public static void write(File file, int size, List<Puzzle> puzzles)
+        throws IOException {
+        final DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(size);
+            out.writeInt(puzzles.size());
+            int last = 0;
+            for (Puzzle puzzle: puzzles) {
+                if (puzzle.size() != size || puzzle.length() < last
+                    || puzzle.length() > 0xFF) {
+                    throw new IllegalArgumentException("puzzle out of order");
+                }
+                last = puzzle.length();
+                out.writeLong(puzzle.rank());
+                out.writeLong(puzzle.seed());
+                out.writeByte(puzzle.length());
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /** Load the pack of the given file by mapping it into memory. */
+    public static PuzzlePack load(File file) throws IOException {
+        final FileInputStream in = new FileInputStream(file);
+        try {
+            final FileChannel channel = in.getChannel();
+            final ByteBuffer buffer = channel.map(
+                FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+                throw new IOException("not a puzzle pack: " + file);
+            }
+            final int size = buffer.getInt();
+            final int count = buffer.getInt();
+            if (buffer.remaining() != (long) count * RECORD_BYTES) {
+                throw new IOException("truncated puzzle pack: " + file);
+            }
+            return new PuzzlePack(size, count, buffer.slice());
+        } finally {
+            in.close(); // the mapping stays valid
+        }
+    }
+}
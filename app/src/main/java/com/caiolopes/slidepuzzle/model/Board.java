@@ -4,6 +4,8 @@ package com.caiolopes.slidepuzzle.model;
 
 import java.util.*;
 
+import com.caiolopes.slidepuzzle.solver.Hints;
+
 /**
  * A puzzle frame consisting of <code>size</code> * <code>size</code>
  * places where puzzle tiles can be placed. 
@@ -20,75 +22,220 @@ public class Board {
     /** Number of tile moves made so far. */
     private int numOfMoves;
 
-    /** Places of this board. */
-    private final List<Place> places;
+    /** Numbers of the tiles placed at the places of this board, in
+     *  row-major order; 0 denotes the blank place. Each entry is an
+     *  unsigned byte, thus a board can be at most 16 * 16. */
+    private final byte[] tiles;
+
+    /** Row-major indices of the places of the tiles, indexed by their
+     *  numbers; the inverse of <code>tiles</code>. Index 0 is unused. */
+    private final byte[] where;
+
+    /** Row-major index of the blank place in <code>tiles</code>. */
+    private int blank;
+
+    /** Number of tiles not placed at their home places. */
+    private int misplaced;
+
+    /** Places of this board, indexed in row-major order, created when
+     *  first asked for; null until then. Places are views of
+     *  <code>tiles</code> and hold no state of their own, thus boards
+     *  only searched or ranked never create them. */
+    private Place[] placeAt;
+
+    /** Places of this board, in the order returned by {@link #places()};
+     *  null until first asked for. */
+    private List<Place> places;
+
+    /** Tiles of all boards, indexed by their numbers. Tiles are
+     *  immutable, thus shared. Index 0, the blank, has no tile. */
+    private static final Tile[] TILES = new Tile[256];
+
+    static {
+        for (int i = 1; i < TILES.length; i++) {
+            TILES[i] = new Tile(i);
+        }
+    }
     
-    /** Listeners listening to board changes such as sliding of tiles. */
-    private final List<BoardChangeListener> listeners;
+    /** Largest dimension of a board; each tile number and place index
+     *  must fit in an unsigned byte. */
+    private static final int MAX_SIZE = 16;
+
+    /** Largest number of places of a board that can be ranked; the
+     *  number of arrangements must fit in a <code>long</code>. */
+    private static final int MAX_RANKED_PLACES = 16;
+
+    /** Listeners listening to board changes such as sliding of tiles;
+     *  null until one is registered. */
+    private List<BoardChangeListener> listeners;
     
-    /** To arrange tiles randomly. */
-    private final static Random random = new Random();
+    /** To draw the seeds of new arrangements of tiles; null until the
+     *  tiles are first rearranged, if not given. */
+    private PuzzleRandom random;
+
+    /** Seed from which the current arrangement of tiles was made. */
+    private long seed;
 
-    /** Create a new board of the given dimension. Initially, the tiles
-     * are ordered with the blank tile as the last tile. */
+    /** Create a new board of the given dimension, from 1 to 16.
+     * Initially, the tiles are ordered with the blank tile as the last
+     * tile. */
     public Board(int size) {
-    	listeners = new ArrayList<BoardChangeListener>();
+        this(size, null);
+    }
+
+    /** Create a new board of the given dimension that draws the seeds
+     * of its arrangements of tiles from the given random source.
+     * Initially, the tiles are ordered with the blank tile as the last
+     * tile. The dimension must be from 1 to 16. If the random source
+     * is null, one with an arbitrary seed is created when needed.
+     *
+     * @see PuzzleRandom#split() */
+    public Board(int size, PuzzleRandom random) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("size: " + size);
+        }
         this.size = size;
-        places = new ArrayList<Place>(size * size);
-        for (int x = 1; x <= size; x++) {
-            for (int y = 1; y <= size; y++) {
-                places.add(x == size && y == size ?
-                           new Place(x, y, this)
-                           : new Place(x, y, (y - 1)* size + x, this));
-            }
+        this.random = random;
+        tiles = new byte[size * size];
+        where = new byte[size * size];
+        for (int i = 1; i < tiles.length; i++) {
+            tiles[i - 1] = (byte) i;
+            where[i] = (byte) (i - 1);
         }
+        blank = tiles.length - 1;
         numOfMoves = 0;
     }
 
-    /** Rearrange the tiles to create a new, solvable puzzle. */
+    /** Rearrange the tiles to create a new, solvable puzzle. The tiles
+     * are shuffled uniformly at random; an unsolvable arrangement is then
+     * made solvable by swapping two of its tiles, thus no arrangement
+     * needs to be retried. The seed of the new arrangement is drawn
+     * from the random source of this board.
+     *
+     * @see #seed() */
     public void rearrange() {
+        if (random == null) {
+            random = new PuzzleRandom();
+        }
+        rearrange(random.nextLong());
+    }
+
+    /** Rearrange the tiles to create the solvable puzzle of the given
+     * seed. The tiles are shuffled from the goal arrangement, not the
+     * current one, so the same seed always creates the same puzzle for
+     * a board of the same dimension.
+     *
+     * @see #rearrange() */
+    public void rearrange(long seed) {
+        this.seed = seed;
         numOfMoves = 0;
-        for (int i = 0; i < size*size; i++) {
-            swapTiles();
+        for (int i = 1; i < tiles.length; i++) {
+            tiles[i - 1] = (byte) i;
+        }
+        tiles[tiles.length - 1] = 0;
+        final PuzzleRandom shuffler = new PuzzleRandom(seed);
+        // Fisher-Yates shuffle, the blank included
+        for (int i = tiles.length - 1; i > 0; i--) {
+            int j = shuffler.nextInt(i + 1);
+            byte t = tiles[i];
+            tiles[i] = tiles[j];
+            tiles[j] = t;
+        }
+        reindex();
+        if (!solvable()) {
+            // swapping two tiles flips the permutation parity
+            int i = blank == 0 ? 1 : 0;
+            int j = blank == i + 1 ? i + 2 : i + 1;
+            swap(i, j);
+        }
+        if (solved() && tiles.length > 1) {
+            // a 3-cycle keeps the parity but breaks the identity
+            swap(0, 1);
+            swap(1, 2);
+        }
+    }
+
+    /** Recompute the blank index, the tile places and the number of
+     * misplaced tiles from <code>tiles</code>. */
+    private void reindex() {
+        misplaced = 0;
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] == 0) {
+                blank = i;
+            } else {
+                where[number(i)] = (byte) i;
+            }
+            misplaced += misplaced(i);
         }
-        do { 
-            swapTiles();
-        } while (!solvable() || solved());
     }
 
-    /** Swap two tiles randomly. */
-    private void swapTiles() {
-        Place p1 = at(random.nextInt(size) + 1, random.nextInt(size) + 1);
-        Place p2 = at(random.nextInt(size) + 1, random.nextInt(size) + 1);
-        if (p1 != p2) {
-            Tile t = p1.getTile();
-            p1.setTile(p2.getTile());
-            p2.setTile(t);
+    /** Swap the tiles at the given row-major indices. */
+    private void swap(int i, int j) {
+        misplaced -= misplaced(i) + misplaced(j);
+        byte t = tiles[i];
+        tiles[i] = tiles[j];
+        tiles[j] = t;
+        misplaced += misplaced(i) + misplaced(j);
+        where[number(i)] = (byte) i;
+        where[number(j)] = (byte) j;
+        if (blank == i) {
+            blank = j;
+        } else if (blank == j) {
+            blank = i;
         }
     }
 
     /** Is the puzzle (current arrangement of tiles) solvable? */
-    private boolean solvable() {
+    public boolean solvable() {
+        // The arrangement is solvable iff the parity of the permutation
+        // taking each place to the home place of its tile, the blank
+        // included, equals the parity of the distance of the blank from
+        // its home place, the last place. The permutation parity is
+        // computed from its cycle decomposition in linear time.
+        final int n = tiles.length;
+        final boolean[] visited = new boolean[n];
+        int cycles = 0;
+        for (int i = 0; i < n; i++) {
+            if (!visited[i]) {
+                cycles++;
+                for (int j = i; !visited[j]; j = home(j)) {
+                    visited[j] = true;
+                }
+            }
+        }
+        final int distance = (size - 1 - blank % size)
+            + (size - 1 - blank / size);
+        return (n - cycles) % 2 == distance % 2;
+    }
+
+    /** Return the row-major index of the home place of the tile, or the
+     * blank, at the given row-major index. */
+    private int home(int i) {
+        return i == blank ? tiles.length - 1 : number(i) - 1;
+    }
+
+    /** Is the puzzle solvable? This is the quadratic, inversion-counting
+     * formulation of {@link #solvable()}, kept as a reference to check
+     * it against. */
+    boolean solvableByInversions() {
         // alg. from: http://www.cs.bham.ac.uk/~mdr/teaching/modules04/
         //                 java2/TilesSolvability.html
     	//
         // count the number of inversions, where an inversion is when
         // a tile precedes another tile with a lower number on it.
         int inversion = 0;
-        for (Place p: places) {
-            Tile pt = p.getTile();
-            for (Place q: places) {
-                Tile qt = q.getTile();
-                if (p != q && pt != null && qt != null &&
-                    indexOf(p) < indexOf(q) &&
-                    pt.number() > qt.number()) {
+        for (int i = 0; i < tiles.length; i++) {
+            int pt = number(i);
+            for (int j = i + 1; j < tiles.length; j++) {
+                int qt = number(j);
+                if (pt != 0 && qt != 0 && pt > qt) {
                     inversion++;
-                }                    
+                }
             }
         }
         final boolean isEvenSize = size % 2 == 0;
         final boolean isEvenInversion = inversion % 2 == 0;
-        boolean isBlankOnOddRow = blank().getY() % 2 == 1;
+        boolean isBlankOnOddRow = (blank / size + 1) % 2 == 1;
         // from the bottom
         isBlankOnOddRow = isEvenSize ? !isBlankOnOddRow : isBlankOnOddRow;
         return (!isEvenSize && isEvenInversion) ||
@@ -102,16 +249,41 @@ public class Board {
         
     }
 
+    /** Return the number of the tile at the given row-major index;
+     * 0 is returned for the blank place. */
+    private int number(int i) {
+        return tiles[i] & 0xFF;
+    }
+
+    /** Return 1 if the tile at the given row-major index is not placed
+     * at its home place, or 0 otherwise; the blank is never misplaced. */
+    private int misplaced(int i) {
+        final int number = number(i);
+        return number != 0 && number != i + 1 ? 1 : 0;
+    }
+
+    /** Return the tile placed at the given place; null is returned
+     * if the place is blank. */
+    Tile tileAt(Place p) {
+        return TILES[number(indexOf(p) - 1)];
+    }
+
+    /** Place the given tile, or no tile if null, at the given place.
+     * Each tile is always at exactly one place, and exactly one place is
+     * blank; thus the tile, or the blank, trades places with the tile
+     * or the blank at the given place. */
+    void put(Place p, Tile tile) {
+        final int i = indexOf(p) - 1;
+        if (tile != null
+            && (tile.number() < 1 || tile.number() >= tiles.length)) {
+            throw new IllegalArgumentException("tile: " + tile.number());
+        }
+        swap(i, tile == null ? blank : where[tile.number()] & 0xFF);
+    }
+
    /** Is this puzzle solved? */
     public boolean solved() {
-        boolean result = true;
-        for (Place p: places) {
-            result = result &&
-                ((p.getX() == size && p.getY() == size) ||
-                 (p.getTile() != null && 
-                  p.getTile().number() == indexOf(p)));
-        }
-        return result;
+        return misplaced == 0;
     }
 
     /** Slide the given tile, which is assumed to be slidable, and
@@ -119,67 +291,217 @@ public class Board {
      *  
      * @see Board#slidable(Place) */
     public void slide(Tile tile) {
-        for (Place p: places) {
-            if (p.getTile() == tile) {
-            	final Place to = blank();
-                to.setTile(tile);
-                p.setTile(null);
-                numOfMoves++;
-                notifyTileSliding(p, to, numOfMoves);
-                if (solved()) {
-                	notifyPuzzleSolved(numOfMoves);
-                }
-                return;
+        if (tile == null) {
+            return;
+        }
+        final int from = where[tile.number()] & 0xFF;
+        final int to = blank;
+        swap(from, blank);
+        numOfMoves++;
+        if (listeners != null) {
+            notifyTileSliding(place(from), place(to), numOfMoves);
+            if (solved()) {
+                notifyPuzzleSolved(numOfMoves);
             }
         }
     }
    
     /** Is the tile in the given place slidable? */
     public boolean slidable(Place place) {
-    	int x = place.getX();
-    	int y = place.getY();
-    	return isBlank(x - 1, y) || isBlank(x + 1, y)
-            || isBlank(x, y - 1) || isBlank(x, y + 1);
+        return slidable(indexOf(place) - 1);
     }
 
-    /** Is the place at the given indices empty? */
-    private boolean isBlank(int x, int y) {
-        return (0 < x && x <= size) && (0 < y && y <= size)
-            && at(x,y).getTile() == null;
+    /** Is the tile at the given row-major index slidable? Return false
+     * for the blank place or an index out of this board. */
+    public boolean slidable(int index) {
+        if (index < 0 || index >= tiles.length) {
+            return false;
+        }
+        final int d = index - blank;
+        return d == size || d == -size
+            || ((d == 1 || d == -1) && index / size == blank / size);
     }
 
-    /** Return the blank place. */
-    public Place blank() {
-        for (Place p: places) {
-            if (p.getTile() == null) {
-                return p;
+    /** Is the tile at the given row-major index in the same row or
+     * column as the blank place, thus can the tiles from it up to the
+     * blank be slid at once? Return false for the blank place or an
+     * index out of this board.
+     *
+     * @see #slideLine(int) */
+    public boolean inLine(int index) {
+        if (index < 0 || index >= tiles.length || index == blank) {
+            return false;
+        }
+        return index / size == blank / size || index % size == blank % size;
+    }
+
+    /** Slide the tile at the given row-major index and all the tiles
+     * between it and the blank place, in the same row or column, one
+     * place towards the blank; the given place becomes the blank.
+     * Registered board change listeners are notified once, as are they
+     * of solving the puzzle; each tile slid counts as a move. Return
+     * the number of tiles slid, 0 if the tile is not in line with the
+     * blank.
+     *
+     * @see #inLine(int)
+     * @see BoardChangeListener#tilesSlid(Place, Place, int) */
+    public int slideLine(int index) {
+        if (!inLine(index)) {
+            return 0;
+        }
+        final int to = blank;
+        final int step = index / size == to / size ? (index < to ? 1 : -1)
+            : (index < to ? size : -size);
+        int count = 0;
+        while (blank != index) {
+            swap(blank - step, blank);
+            count++;
+        }
+        numOfMoves += count;
+        if (listeners != null) {
+            notifyTilesSliding(place(index), place(to), numOfMoves);
+            if (solved()) {
+                notifyPuzzleSolved(numOfMoves);
             }
         }
-        //assert false : "should never reach here!";
-        return null; 
+        return count;
+    }
+
+    /** Return the blank place. */
+    public Place blank() {
+        return place(blank);
     }
 
     /** Return all the places of this board. */
     public Iterable<Place> places() {
+        if (places == null) {
+            List<Place> all = new ArrayList<Place>(tiles.length);
+            for (int x = 0; x < size; x++) {
+                for (int y = 0; y < size; y++) {
+                    all.add(place(y * size + x));
+                }
+            }
+            places = Collections.unmodifiableList(all);
+        }
         return places;
     }
 
-    /** Return the place at the given indices. */
+    /** Return the place at the given row-major index, from 0, creating
+     * the places of this board if not yet created. */
+    private Place place(int index) {
+        if (placeAt == null) {
+            placeAt = new Place[tiles.length];
+        }
+        Place p = placeAt[index];
+        if (p == null) {
+            p = new Place(index % size + 1, index / size + 1, this);
+            placeAt[index] = p;
+        }
+        return p;
+    }
+
+    /** Return the place at the given indices; null is returned if
+     * the indices are out of this board. */
     public Place at(int x, int y) {
-        for (Place p: places) {
-            if (p.getX() == x && p.getY() == y) {
-                return p;
-            }
+        if (0 < x && x <= size && 0 < y && y <= size) {
+            return place((y - 1) * size + x - 1);
         }
         //assert false : "precondition violation!";
         return null; 
     }
 
+    /** Return the place at the given row-major index, from 0; null is
+     * returned if the index is out of this board. */
+    public Place at(int index) {
+        if (0 <= index && index < tiles.length) {
+            return place(index);
+        }
+        return null;
+    }
+
+    /** Return the numbers of the tiles of this board in row-major
+     * order, where 0 denotes the blank place. The returned array is a
+     * snapshot; later moves do not change it. */
+    public int[] arrangement() {
+        final int[] result = new int[tiles.length];
+        for (int i = 0; i < tiles.length; i++) {
+            result[i] = number(i);
+        }
+        return result;
+    }
+
+    /** Return the rank of the arrangement of tiles of this board, as a
+     * permutation of the tile numbers in row-major order with 0 for the
+     * blank, among all arrangements; only boards of dimension up to 4
+     * can be ranked.
+     *
+     * @see #fromRank(int, long)
+     * @see Permutations */
+    public long rank() {
+        if (tiles.length > MAX_RANKED_PLACES) {
+            throw new IllegalStateException("board too large to rank");
+        }
+        long result = 0;
+        long seen = 0;
+        for (int i = 0; i < tiles.length; i++) {
+            result = result * (tiles.length - i)
+                + Permutations.digit(seen, number(i));
+            seen |= 1L << number(i);
+        }
+        return result;
+    }
+
+    /** Create a new board of the given dimension, at most 4, whose
+     * arrangement of tiles has the given rank. The arrangement is not
+     * necessarily solvable.
+     *
+     * @see #rank() */
+    public static Board fromRank(int size, long rank) {
+        final int n = size * size;
+        if (n > MAX_RANKED_PLACES) {
+            throw new IllegalArgumentException("board too large to rank");
+        }
+        if (rank < 0 || rank >= Permutations.count(n, n)) {
+            throw new IllegalArgumentException("rank: " + rank);
+        }
+        final Board result = new Board(size);
+        final int[] numbers = new int[n];
+        Permutations.unrank(rank, numbers);
+        for (int i = 0; i < n; i++) {
+            result.tiles[i] = (byte) numbers[i];
+        }
+        result.reindex();
+        return result;
+    }
+
+    /** Return the place whose tile slides next on a shortest path
+     * solving this board, or null if this board is solved, unsolvable
+     * or too large for hints to be given; only boards of dimension up
+     * to 4 get hints. Paths found are cached, so following the hints
+     * does not search again. A 4 * 4 board whose path is not cached is
+     * searched for on the calling thread, which can take seconds on a
+     * phone; this method must thus not be called on the UI thread.
+     *
+     * @see Hints */
+    public Place bestNextMove() {
+        final Hints hints = Hints.forSize(size);
+        if (hints == null || solved() || !solvable()) {
+            return null;
+        }
+        return place(where[hints.nextTile(this)] & 0xFF);
+    }
+
     /** Return the dimension of this board. */
     public int size() {
         return size;
     }
 
+    /** Return the seed from which the current arrangement of tiles was
+     * made; 0 is returned if the tiles were never rearranged. */
+    public long seed() {
+        return seed;
+    }
+
     /** Return the number of tile moves made so far. */
     public int numOfMoves() {
         return numOfMoves;
@@ -187,6 +509,9 @@ public class Board {
 
     /** Register the given listener to listen to board changes. */
     public void addBoardChangeListener(BoardChangeListener listener) {
+    	if (listeners == null) {
+    		listeners = new ArrayList<BoardChangeListener>();
+    	}
     	if (!listeners.contains(listener)) {
     		listeners.add(listener);
     	}
@@ -194,7 +519,9 @@ public class Board {
     
     /** Unregister the given listener from listening to board changes. */
     public void removeBoardChangeListener(BoardChangeListener listener) {
-		listeners.remove(listener);
+    	if (listeners != null) {
+    		listeners.remove(listener);
+    	}
     }
     
     /** Notify a tile sliding to registered board change listeners. */
@@ -204,6 +531,14 @@ public class Board {
     	}
     }
     
+    /** Notify a line of tiles sliding to registered board change
+     * listeners. */
+    private void notifyTilesSliding(Place from, Place to, int numOfMoves) {
+    	for (BoardChangeListener listener: listeners) {
+    		listener.tilesSlid(from, to, numOfMoves);
+    	}
+    }
+    
     /** Notify solving of the puzzle to registered board change listeners. */
     private void notifyPuzzleSolved(int numOfMoves) {
     	for (BoardChangeListener listener: listeners) {
@@ -220,6 +555,16 @@ public class Board {
     	 * be empty and <code>to</code> will be the tile moved. */
     	void tileSlid(Place from, Place to, int numOfMoves);
     	
+    	/** Called when the tiles located from the <code>from</code>
+    	 * place up to the empty <code>to</code> place, in the same row
+    	 * or column, were each slid one place towards <code>to</code>.
+    	 * The places will be provided in new states; i.e.,
+    	 * <code>from</code> will be empty and each other place will
+    	 * have the tile that was next to it towards <code>from</code>.
+    	 * The number of tile moves counts each
+    	 * tile slid. */
+    	void tilesSlid(Place from, Place to, int numOfMoves);
+    	
     	/** Called when the puzzle is solved. The number of tile moves
     	 * is provided as the argument. */
     	void solved(int numOfMoves);
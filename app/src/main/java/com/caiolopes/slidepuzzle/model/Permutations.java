@@ -0,0 +1,94 @@
+package com.caiolopes.slidepuzzle.model;
+
+/**
+ * Ranking and unranking of permutations and partial permutations in
+ * lexicographic order, by their Lehmer codes. A partial permutation is
+ * a sequence of <code>k</code> distinct elements out of
+ * <code>0</code>..<code>n-1</code>; a permutation is one with
+ * <code>k == n</code>. The rank of a partial permutation is between 0
+ * (inclusive) and <code>n! / (n-k)!</code> (exclusive).
+ *
+ * <p>The elements already seen are kept as bits of a <code>long</code>,
+ * so that each digit of a Lehmer code is found by a population count
+ * and each element of an unranked sequence by a binary search over
+ * population counts; <code>n</code> must thus be at most 64, and the
+ * number of sequences must fit in a <code>long</code>, e.g., at most
+ * 20 elements for permutations. Nothing is allocated.
+ */
+public final class Permutations {
+
+    private Permutations() {
+    }
+
+    /** Return the rank of the permutation of the given elements. */
+    public static long rank(int[] elements) {
+        return rank(elements, elements.length, elements.length);
+    }
+
+    /** Return the rank of the partial permutation of the first
+     * <code>k</code> of the given elements out of <code>n</code>. */
+    public static long rank(int[] elements, int k, int n) {
+        long result = 0;
+        long seen = 0;
+        for (int i = 0; i < k; i++) {
+            result = result * (n - i) + digit(seen, elements[i]);
+            seen |= 1L << elements[i];
+        }
+        return result;
+    }
+
+    /** Return the Lehmer digit of the given element following the
+     * elements of the given bit set, i.e., the number of elements less
+     * than it that are not yet seen. */
+    public static int digit(long seen, int element) {
+        return element - Long.bitCount(seen & ((1L << element) - 1));
+    }
+
+    /** Store the permutation of the given rank into the given array. */
+    public static void unrank(long rank, int[] elements) {
+        unrank(rank, elements, elements.length, elements.length);
+    }
+
+    /** Store the partial permutation of <code>k</code> elements out of
+     * <code>n</code> of the given rank into the first <code>k</code>
+     * places of the given array. */
+    public static void unrank(long rank, int[] elements, int k, int n) {
+        for (int i = k - 1; i >= 0; i--) {
+            elements[i] = (int) (rank % (n - i));
+            rank /= n - i;
+        }
+        long free = n == 64 ? -1L : (1L << n) - 1;
+        for (int i = 0; i < k; i++) {
+            elements[i] = select(free, elements[i]);
+            free &= ~(1L << elements[i]);
+        }
+    }
+
+    /** Return the number of partial permutations of <code>k</code>
+     * elements out of <code>n</code>, i.e., <code>n! / (n-k)!</code>. */
+    public static long count(int k, int n) {
+        long result = 1;
+        for (int i = 0; i < k; i++) {
+            result *= n - i;
+        }
+        return result;
+    }
+
+    /** Return the position of the <code>r</code>-th (0-based) one bit of
+     * the given bits, by halving the range by its population count. */
+    private static int select(long bits, int r) {
+        int result = 0;
+        for (int width = 32; width > 0; width >>= 1) {
+            final long low = bits & ((1L << width) - 1);
+            final int count = Long.bitCount(low);
+            if (r >= count) {
+                r -= count;
+                bits >>>= width;
+                result += width;
+            } else {
+                bits = low;
+            }
+        }
+        return result;
+    }
+}
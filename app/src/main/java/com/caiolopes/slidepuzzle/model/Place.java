@@ -6,7 +6,8 @@ package com.caiolopes.slidepuzzle.model;
  * A place in a puzzle board. Each place has a pair of 1-based
  * indices---<code>x</code> for column and <code>y</code> for
  * row---that uniquely identify it in the board. A place can be
- * occupied by a tile.
+ * occupied by a tile. A place is a view of its board; the tile
+ * placed at it is kept by the board.
  *
  * @see Tile
  */
@@ -18,9 +19,6 @@ public class Place {
     /** 1-based row index of this place. */
     private final int y;
 
-    /** Tile currently placed at this place. */
-    private Tile tile;
-
     /** Board which this place belongs to. */
     private Board board;
     
@@ -31,13 +29,6 @@ public class Place {
         this.board = board;
     }
 
-    /** Create a new place with the given indices and a tile marked with
-     * the given number for the given board. */
-    public Place(int x, int y, int number, Board board) {
-        this(x, y, board);
-        tile = new Tile(number);
-    }
-
     /** Return the 1-based column index of this place. */
     public int getX() {
         return x;
@@ -50,18 +41,20 @@ public class Place {
 
     /** Does this place have a tile at it? */
     public boolean hasTile() {
-        return tile != null;
+        return getTile() != null;
     }
 
     /** Return the tile placed in this place; null is returned if no
      * tile is placed. */
     public Tile getTile() {
-        return tile;
+        return board.tileAt(this);
     }
 
-    /** Place the given tile in this place. */
+    /** Place the given tile, or no tile if null, in this place. The
+     * tile, or the blank, trades places with the tile or the blank in
+     * this place. */
     public void setTile(Tile tile) {
-        this.tile = tile;
+        board.put(this, tile);
     }
     
     /** Is the tile in this place slidable? Return false if this place
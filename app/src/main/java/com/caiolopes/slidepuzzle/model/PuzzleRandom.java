@@ -0,0 +1,86 @@
+package com.caiolopes.slidepuzzle.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A seeded, splittable source of pseudorandom numbers to arrange puzzle
+ * tiles. It uses the SplitMix64 algorithm of
+ * <code>java.util.SplittableRandom</code>, which is not available on
+ * all Android versions. An instance is not thread-safe; instead, each
+ * thread should use its own instance obtained by {@link #split()}, so
+ * no state is shared between threads.
+ *
+ * @see Board
+ */
+public class PuzzleRandom {
+
+    /** Odd constant by which the state advances; the fractional part
+     *  of the golden ratio. */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /** To create seeds for instances created without one. */
+    private static final AtomicLong seeder = new AtomicLong(
+        mix64(System.currentTimeMillis()) ^ mix64(System.nanoTime()));
+
+    /** Seed of this random source. */
+    private final long seed;
+
+    /** Current state of this random source. */
+    private long state;
+
+    /** Create a new random source with an arbitrary seed. */
+    public PuzzleRandom() {
+        this(mix64(seeder.getAndAdd(GOLDEN_GAMMA)));
+    }
+
+    /** Create a new random source with the given seed. Two random
+     * sources with the same seed produce the same sequence of values. */
+    public PuzzleRandom(long seed) {
+        this.seed = seed;
+        this.state = seed;
+    }
+
+    /** Return the seed of this random source. */
+    public long seed() {
+        return seed;
+    }
+
+    /** Return the next pseudorandom <code>long</code> value. */
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix64(state);
+    }
+
+    /** Return the next pseudorandom <code>int</code> value between 0
+     * (inclusive) and the given bound (exclusive), which must be
+     * positive. */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        // reject the values of the last, partial range of the bound
+        int r = (int) (nextLong() >>> 33);
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            return (int) ((bound * (long) r) >>> 31);
+        }
+        for (int u = r; u - (r = u % bound) + m < 0;
+             u = (int) (nextLong() >>> 33)) {
+        }
+        return r;
+    }
+
+    /** Return a new random source seeded from this one. The new source
+     * shares no state with this one and may be used by another thread. */
+    public PuzzleRandom split() {
+        return new PuzzleRandom(nextLong());
+    }
+
+    /** Return the given value with its bits mixed; Stafford's variant 13
+     * of the MurmurHash3 finalizer. */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
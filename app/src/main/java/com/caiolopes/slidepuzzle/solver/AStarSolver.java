@@ -0,0 +1,165 @@
+package com.caiolopes.slidepuzzle.solver;
+
+import com.caiolopes.slidepuzzle.model.Board;
+
+/**
+ * An A* solver for boards of dimension up to 4. Arrangements are packed
+ * into <code>long</code>s; the nodes of the search tree are kept in
+ * parallel primitive arrays, the closed set in a primitive-keyed hash
+ * map and the open list in a binary heap of <code>int</code>
+ * priorities. By default, nodes are estimated by Manhattan distance plus
+ * linear conflict.
+ *
+ * <p>A* keeps every node it generates, so its memory grows with the
+ * difficulty of the board; use {@link IdaStarSolver} for hard boards.
+ */
+public class AStarSolver implements Solver {
+
+    /** Estimate of the nodes. */
+    private final Heuristic heuristic;
+
+    /** Create a new solver for boards of the given dimension. */
+    public AStarSolver(int size) {
+        this(new LinearConflictHeuristic(size));
+    }
+
+    /** Create a new solver using the given heuristic, which must be
+     * admissible for the results to be optimal. */
+    public AStarSolver(Heuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    /** {@inheritDoc} */
+    public int[] solve(Board board) {
+        States.checkSolvable(board, States.MAX_PACKED_SIZE);
+        if (board.size() != heuristic.size()) {
+            throw new IllegalArgumentException("size: " + board.size());
+        }
+        return new Search(board.arrangement()).run();
+    }
+
+    /** A single search, holding its tree of nodes. */
+    private class Search {
+
+        /** Places adjacent to each place. */
+        private final int[][] neighbours;
+
+        /** Arrangement of the node being expanded. */
+        private final int[] tiles;
+
+        /** Packed arrangements of the nodes. */
+        private long[] states = new long[1 << 10];
+
+        /** Parent node of each node; -1 for the root. */
+        private int[] parents = new int[states.length];
+
+        /** Number of moves from the root to each node. */
+        private int[] costs = new int[states.length];
+
+        /** Value of the heuristic of each node. */
+        private int[] values = new int[states.length];
+
+        /** Row-major index of the blank place of each node. */
+        private byte[] blanks = new byte[states.length];
+
+        /** Number of nodes generated so far. */
+        private int count;
+
+        /** Best node of each arrangement generated so far. */
+        private final LongIntHashMap closed = new LongIntHashMap();
+
+        /** Nodes to be expanded, ordered by their estimated costs. */
+        private final IntMinHeap open = new IntMinHeap();
+
+        /** Create a new search from the given arrangement. */
+        Search(int[] tiles) {
+            this.tiles = tiles;
+            neighbours = States.neighbours(heuristic.size());
+        }
+
+        /** Run this search and return the tiles to slide. */
+        int[] run() {
+            if (States.solved(tiles)) {
+                return new int[0];
+            }
+            final long goal = States.pack(States.goal(heuristic.size()));
+            add(States.pack(tiles), -1, 0, heuristic.value(tiles),
+                States.blank(tiles));
+            while (!open.isEmpty()) {
+                final int node = open.pop();
+                final long state = states[node];
+                if (closed.get(state) != node) {
+                    continue; // superseded by a cheaper node
+                }
+                if (state == goal) {
+                    return path(node);
+                }
+                final int blank = States.unpack(state, tiles);
+                final int parent = parents[node];
+                final int cost = costs[node] + 1;
+                for (int from: neighbours[blank]) {
+                    if (parent >= 0 && blanks[parent] == from) {
+                        continue; // undoing the last move
+                    }
+                    final int tile = tiles[from];
+                    tiles[blank] = tile;
+                    tiles[from] = 0;
+                    final int value = heuristic.update(tiles,
+                        values[node], tile, from, blank);
+                    tiles[from] = tile;
+                    tiles[blank] = 0;
+                    final long child = States.slide(state, tile, from, blank);
+                    final int known = closed.get(child);
+                    if (known < 0 || cost < costs[known]) {
+                        add(child, node, cost, value, from);
+                    }
+                }
+            }
+            throw new IllegalStateException("no solution");
+        }
+
+        /** Add a new node and open it. */
+        private void add(long state, int parent, int cost, int value,
+                         int blank) {
+            if (count == states.length) {
+                grow();
+            }
+            states[count] = state;
+            parents[count] = parent;
+            costs[count] = cost;
+            values[count] = value;
+            blanks[count] = (byte) blank;
+            closed.put(state, count);
+            // prefer deeper nodes among those of the same estimated cost
+            open.push(count, ((cost + heuristic.estimateOf(value)) << 10)
+                      + 1023 - Math.min(cost, 1023));
+            count++;
+        }
+
+        /** Return the tiles slid from the root to the given node. */
+        private int[] path(int node) {
+            final int[] result = new int[costs[node]];
+            for (int i = result.length - 1; i >= 0; i--) {
+                final int parent = parents[node];
+                final int to = blanks[parent];
+                result[i] = (int) (states[node] >>> (4 * to)) & 0xF;
+                node = parent;
+            }
+            return result;
+        }
+
+        /** Double the capacity of the node arrays. */
+        private void grow() {
+            final int length = states.length * 2;
+            final long[] newStates = new long[length];
+            System.arraycopy(states, 0, newStates, 0, count);
+            states = newStates;
+            parents = States.copyOf(parents, length);
+            costs = States.copyOf(costs, length);
+            values = States.copyOf(values, length);
+            final byte[] newBlanks = new byte[length];
+            System.arraycopy(blanks, 0, newBlanks, 0, count);
+            blanks = newBlanks;
+        }
+    }
+}
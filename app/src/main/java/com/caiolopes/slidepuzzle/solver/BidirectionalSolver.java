@@ -0,0 +1,158 @@
+package com.caiolopes.slidepuzzle.solver;
+
+import com.caiolopes.slidepuzzle.model.Board;
+
+/**
+ * A bidirectional breadth-first solver for boards of dimension up to 4.
+ * It searches forward from the board and backward from the goal, each
+ * time expanding a whole depth of the side with the smaller frontier,
+ * until the two meet. The arrangements reached by each side are packed
+ * into <code>long</code>s and kept in a primitive-keyed hash map.
+ *
+ * <p>Each side reaches only about the square root of the states a
+ * one-directional search would, but without a heuristic it still
+ * explores whole depths; it suits 3 * 3 boards and easy 4 * 4 boards.
+ * Use {@link IdaStarSolver} for hard 4 * 4 boards.
+ */
+public class BidirectionalSolver implements Solver {
+
+    /** {@inheritDoc} */
+    public int[] solve(Board board) {
+        States.checkSolvable(board, States.MAX_PACKED_SIZE);
+        final int[] tiles = board.arrangement();
+        if (States.solved(tiles)) {
+            return new int[0];
+        }
+        final int[][] neighbours = States.neighbours(board.size());
+        final Side forward = new Side(tiles);
+        final Side backward = new Side(States.goal(board.size()));
+        while (true) {
+            final boolean isForward = forward.frontier() <= backward.frontier();
+            final Side side = isForward ? forward : backward;
+            final Side other = isForward ? backward : forward;
+            final int[] meeting = side.expand(other, neighbours);
+            if (meeting != null) {
+                return isForward
+                    ? path(forward, meeting[0], backward, meeting[1])
+                    : path(forward, meeting[1], backward, meeting[0]);
+            }
+        }
+    }
+
+    /** Return the tiles slid from the board to the given node of the
+     * forward side, and then from the given node of the backward side,
+     * of the same arrangement, to the goal. */
+    private static int[] path(Side forward, int to, Side backward,
+                              int from) {
+        final int middle = forward.depths[to];
+        final int[] result = new int[middle + backward.depths[from]];
+        for (int i = middle - 1; i >= 0; i--) {
+            final int parent = forward.parents[to];
+            result[i] = forward.tile(to, forward.blanks[parent]);
+            to = parent;
+        }
+        for (int i = middle; i < result.length; i++) {
+            final int parent = backward.parents[from];
+            result[i] = backward.tile(from, backward.blanks[parent]);
+            from = parent;
+        }
+        return result;
+    }
+
+    /** A side of the search, holding its tree of nodes in breadth-first
+     * order. */
+    private static class Side {
+
+        /** Packed arrangements of the nodes. */
+        long[] states = new long[1 << 10];
+
+        /** Parent node of each node; -1 for the root. */
+        int[] parents = new int[states.length];
+
+        /** Depth of each node. */
+        int[] depths = new int[states.length];
+
+        /** Row-major index of the blank place of each node. */
+        byte[] blanks = new byte[states.length];
+
+        /** Number of nodes generated so far. */
+        private int count;
+
+        /** First node of the deepest depth, i.e., of the frontier. */
+        private int first;
+
+        /** Node of each arrangement reached so far. */
+        private final LongIntHashMap nodes = new LongIntHashMap();
+
+        /** Arrangement of the node being expanded. */
+        private final int[] tiles;
+
+        /** Create a new side rooted at the given arrangement. */
+        Side(int[] root) {
+            tiles = root.clone();
+            add(States.pack(root), -1, 0, States.blank(root));
+        }
+
+        /** Return the number of nodes of the frontier. */
+        int frontier() {
+            return count - first;
+        }
+
+        /** Return the tile at the given place of the given node. */
+        int tile(int node, int place) {
+            return (int) (states[node] >>> (4 * place)) & 0xF;
+        }
+
+        /** Expand all the nodes of the frontier, and return the nodes of
+         * this side and the other where the shortest path through a new
+         * node meets the other side, if any. */
+        int[] expand(Side other, int[][] neighbours) {
+            final int last = count;
+            int[] result = null;
+            for (int node = first; node < last; node++) {
+                final long state = states[node];
+                final int to = States.unpack(state, tiles);
+                final int parent = parents[node];
+                for (int from: neighbours[to]) {
+                    if (parent >= 0 && blanks[parent] == from) {
+                        continue; // undoing the last move
+                    }
+                    final long child = States.slide(state, tiles[from], from,
+                                                    to);
+                    if (nodes.get(child) >= 0) {
+                        continue;
+                    }
+                    final int added = add(child, node, depths[node] + 1, from);
+                    final int met = other.nodes.get(child);
+                    if (met >= 0 && (result == null
+                                     || other.depths[met]
+                                        < other.depths[result[1]])) {
+                        result = new int[] { added, met };
+                    }
+                }
+            }
+            first = last;
+            return result;
+        }
+
+        /** Add a new node and return it. */
+        private int add(long state, int parent, int depth, int blank) {
+            if (count == states.length) {
+                final long[] newStates = new long[2 * count];
+                System.arraycopy(states, 0, newStates, 0, count);
+                states = newStates;
+                parents = States.copyOf(parents, 2 * count);
+                depths = States.copyOf(depths, 2 * count);
+                final byte[] newBlanks = new byte[2 * count];
+                System.arraycopy(blanks, 0, newBlanks, 0, count);
+                blanks = newBlanks;
+            }
+            states[count] = state;
+            parents[count] = parent;
+            depths[count] = depth;
+            blanks[count] = (byte) blank;
+            nodes.put(state, count);
+            return count++;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.caiolopes.slidepuzzle.solver;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import com.caiolopes.slidepuzzle.model.Board;
+import com.caiolopes.slidepuzzle.model.Permutations;
+
+/**
+ * The exact number of moves needed to solve every one of the 9! / 2
+ * solvable arrangements of a 3 * 3 board. An arrangement is indexed by
+ * the place of its blank and the rank of the order of its tiles, read
+ * in row-major order; as the order of the tiles of a solvable 3 * 3
+ * arrangement is always an even permutation, and a permutation and the
+ * one with its last two elements swapped have ranks differing only in
+ * the lowest bit, half the rank is enough.
+ *
+ * <p>The table, a byte per arrangement, is generated once by a
+ * breadth-first search from the goal and shipped as the resource
+ * <code>eight-puzzle.bin</code> next to this class; it is generated
+ * again if the resource is missing. Solving a board then takes no
+ * search: each move leads to an arrangement one move closer.
+ */
+public class EightPuzzleTable implements Solver {
+
+    /** Dimension of the boards of the table. */
+    private static final int SIZE = 3;
+
+    /** Number of places of the board. */
+    private static final int N = SIZE * SIZE;
+
+    /** Number of even permutations of the tiles, 8! / 2. */
+    private static final int ORDERS = 20160;
+
+    /** Name of the resource of the table. */
+    private static final String RESOURCE = "eight-puzzle.bin";
+
+    /** Places adjacent to each place. */
+    private static final int[][] neighbours = States.neighbours(SIZE);
+
+    /** Number of moves needed to solve each arrangement, by index. */
+    private final byte[] table;
+
+    /** Create a new solver using the shipped table. */
+    public EightPuzzleTable() {
+        table = Holder.table;
+    }
+
+    /** Holder of the table, loaded when first needed. */
+    private static class Holder {
+
+        /** The shared table. */
+        static final byte[] table = load();
+    }
+
+    /** Return the number of moves needed to solve the given board,
+     * which must be solvable and of dimension 3. */
+    public int distance(Board board) {
+        check(board);
+        return table[index(board.arrangement())];
+    }
+
+    /** {@inheritDoc} */
+    public int[] solve(Board board) {
+        check(board);
+        final int[] tiles = board.arrangement();
+        int blank = States.blank(tiles);
+        final int[] result = new int[table[index(tiles)]];
+        for (int i = 0; i < result.length; i++) {
+            for (int from: neighbours[blank]) {
+                final int tile = tiles[from];
+                tiles[blank] = tile;
+                tiles[from] = 0;
+                if (table[index(tiles)] == result.length - i - 1) {
+                    result[i] = tile;
+                    blank = from;
+                    break;
+                }
+                tiles[from] = tile;
+                tiles[blank] = 0;
+            }
+        }
+        return result;
+    }
+
+    /** Check that the given board is solvable and of dimension 3. */
+    private static void check(Board board) {
+        if (board.size() != SIZE) {
+            throw new IllegalArgumentException("size: " + board.size());
+        }
+        States.checkSolvable(board, SIZE);
+    }
+
+    /** Return the index of the given solvable arrangement. */
+    private static int index(int[] tiles) {
+        int rank = 0;
+        long seen = 0;
+        int blank = 0;
+        for (int i = 0, k = N - 1; i < N; i++) {
+            if (tiles[i] == 0) {
+                blank = i;
+            } else {
+                // tile t is element t - 1 of the order
+                rank = rank * k-- + Permutations.digit(seen, tiles[i] - 1);
+                seen |= 1L << (tiles[i] - 1);
+            }
+        }
+        return blank * ORDERS + rank / 2;
+    }
+
+    /** Load the table from its resource, or generate it if missing. */
+    private static byte[] load() {
+        final InputStream in =
+            EightPuzzleTable.class.getResourceAsStream(RESOURCE);
+        if (in != null) {
+            try {
+                final byte[] result = new byte[N * ORDERS];
+                new DataInputStream(in).readFully(result);
+                return result;
+            } catch (IOException e) {
+                // generate it instead
+            } finally {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    // nothing to release
+                }
+            }
+        }
+        return generate();
+    }
+
+    /** Generate the table by a breadth-first search from the goal. */
+    static byte[] generate() {
+        final byte[] result = new byte[N * ORDERS];
+        Arrays.fill(result, (byte) -1);
+        final long[] queue = new long[result.length];
+        final int[] tiles = States.goal(SIZE);
+        int count = 0;
+        queue[count++] = States.pack(tiles);
+        result[index(tiles)] = 0;
+        for (int head = 0; head < count; head++) {
+            final long state = queue[head];
+            final int to = States.unpack(state, tiles);
+            final byte depth = result[index(tiles)];
+            for (int from: neighbours[to]) {
+                final int tile = tiles[from];
+                tiles[to] = tile;
+                tiles[from] = 0;
+                final int index = index(tiles);
+                if (result[index] < 0) {
+                    result[index] = (byte) (depth + 1);
+                    queue[count++] = States.slide(state, tile, from, to);
+                }
+                tiles[from] = tile;
+                tiles[to] = 0;
+            }
+        }
+        return result;
+    }
+
+    /** Generate the table and write it to the file of the given name,
+     * to be shipped as the resource of the table. */
+    public static void main(String[] args) throws IOException {
+        final OutputStream out =
+            new BufferedOutputStream(new FileOutputStream(args[0]));
+        try {
+            out.write(generate());
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.caiolopes.slidepuzzle.solver;
+
+/**
+ * An approximate count of how often each key was seen recently, as a
+ * count-min sketch of 4-bit counters. Each key has a counter in each of
+ * 4 rows, chosen by differently seeded hashes, and its frequency is the
+ * least of them. Once as many keys have been seen as 10 times the width,
+ * all counters are halved, so that old popularity fades away.
+ */
+final class FrequencySketch {
+
+    /** Seeds of the hashes of the rows. */
+    private static final long[] SEEDS = {
+        0x9e3779b97f4a7c15L, 0xc2b2ae3d27d4eb4fL,
+        0x165667b19e3779f9L, 0xd6e8feb86659fd93L
+    };
+
+    /** Largest value of a counter. */
+    private static final int MAX_COUNT = 15;
+
+    /** Counters of the rows, 16 in each <code>long</code>; the row of a
+     * counter selects which 4 of the 16 a key may use. */
+    private final long[] table;
+
+    /** Number of keys seen before the counters are halved. */
+    private final int sampleSize;
+
+    /** Number of keys seen since the counters were last halved. */
+    private int seen;
+
+    /** Create a new sketch for about the given number of keys. */
+    FrequencySketch(int capacity) {
+        int width = 16;
+        while (width < capacity && width < 1 << 24) {
+            width <<= 1;
+        }
+        table = new long[width / 4];
+        sampleSize = 10 * width;
+    }
+
+    /** Return the estimated number of times the given key was seen. */
+    int frequency(long key) {
+        int result = MAX_COUNT;
+        for (int row = 0; row < SEEDS.length; row++) {
+            result = Math.min(result, count(key, row));
+        }
+        return result;
+    }
+
+    /** Record that the given key was seen once more. */
+    void increment(long key) {
+        final int frequency = frequency(key);
+        if (frequency == MAX_COUNT) {
+            return;
+        }
+        for (int row = 0; row < SEEDS.length; row++) {
+            // only the smallest counters grow (conservative update)
+            if (count(key, row) == frequency) {
+                table[index(key, row)] += 1L << shift(key, row);
+            }
+        }
+        if (++seen == sampleSize) {
+            halve();
+        }
+    }
+
+    /** Return the counter of the given key in the given row. */
+    private int count(long key, int row) {
+        return (int) (table[index(key, row)] >>> shift(key, row)) & 0xF;
+    }
+
+    /** Return the index of the <code>long</code> holding the counter of
+     * the given key in the given row. */
+    private int index(long key, int row) {
+        return (int) (hash(key, row) >>> 32) & (table.length - 1);
+    }
+
+    /** Return the bit position of the counter of the given key in the
+     * given row within its <code>long</code>. */
+    private static int shift(long key, int row) {
+        return 4 * (4 * row + ((int) hash(key, row) & 3));
+    }
+
+    /** Return the hash of the given key for the given row. */
+    private static long hash(long key, int row) {
+        long h = (key + SEEDS[row]) * 0xbf58476d1ce4e5b9L;
+        return h ^ (h >>> 31);
+    }
+
+    /** Halve all the counters. */
+    private void halve() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & 0x7777777777777777L;
+        }
+        seen /= 2;
+    }
+}
@@ -0,0 +1,35 @@
+package com.caiolopes.slidepuzzle.solver;
+
+/**
+ * An admissible estimate of the number of moves needed to solve an
+ * arrangement of tiles. An arrangement is given as the numbers of the
+ * tiles in row-major order, where 0 denotes the blank place, as
+ * returned by <code>Board.arrangement()</code>.
+ *
+ * <p>A heuristic keeps no state about the arrangements it is given, so
+ * a search keeps the value of each node on its own stack and updates it
+ * incrementally as tiles slide. The value of a node is its estimate, or
+ * whatever the heuristic needs to update the estimate cheaply, from
+ * which the estimate is taken.
+ */
+public interface Heuristic {
+
+    /** Return the dimension of the boards this heuristic estimates. */
+    int size();
+
+    /** Return the estimate of the given arrangement. */
+    int estimate(int[] tiles);
+
+    /** Return the value of the given arrangement. */
+    int value(int[] tiles);
+
+    /** Return the estimate of an arrangement of the given value. */
+    int estimateOf(int value);
+
+    /** Return the value of the given arrangement, in which the given
+     * tile has just slid from the place at the row-major index
+     * <code>from</code> to the blank place at <code>to</code>, given the
+     * value before the slide. The arrangement may be changed during the
+     * call, but is restored before it returns. */
+    int update(int[] tiles, int value, int tile, int from, int to);
+}
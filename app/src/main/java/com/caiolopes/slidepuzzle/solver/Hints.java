@@ -0,0 +1,61 @@
+package com.caiolopes.slidepuzzle.solver;
+
+import com.caiolopes.slidepuzzle.model.Board;
+
+/**
+ * Hints of the next move on an optimal path, backed by a solver and a
+ * {@link SolutionCache} of the paths found. When a board is solved,
+ * every arrangement along its path is cached with the rest of the path,
+ * so hints along the path taken are looked up rather than solved again.
+ *
+ * <p>Hints are given for boards of dimension up to 4, solved by the
+ * solvers of {@link Solvers#optimal(int)}. The paths are evicted least
+ * recently used first, as a player asking for a hint on a new board
+ * should always get its path cached; the rest of the path is cached
+ * while the budget has room for it.
+ *
+ * @see Board#bestNextMove()
+ */
+public class Hints {
+
+    /** Most bytes taken by the paths cached for each dimension. */
+    private static final long BUDGET = 1 << 20;
+
+    /** Hints of each dimension, created when first needed. */
+    private static final Hints[] hints = new Hints[States.MAX_PACKED_SIZE + 1];
+
+    /** Cached paths of the boards. */
+    private final SolutionCache cache;
+
+    /** Create new hints using the given solver, caching at most the
+     * given number of bytes of paths. */
+    public Hints(Solver solver, long budget) {
+        cache = new SolutionCache(solver, budget, SolutionCache.Policy.LRU);
+    }
+
+    /** Return the hints of boards of the given dimension, or null if no
+     * hints are given for the dimension. */
+    public static synchronized Hints forSize(int size) {
+        if (size < 2 || size > States.MAX_PACKED_SIZE) {
+            return null;
+        }
+        if (hints[size] == null) {
+            hints[size] = new Hints(Solvers.optimal(size), BUDGET);
+        }
+        return hints[size];
+    }
+
+    /** Return the number of the tile to slide next on an optimal path
+     * solving the given board, which must be solvable, or 0 if it is
+     * already solved. A board whose path is not cached is searched for
+     * on the calling thread; for 4 * 4 boards, this can take seconds. */
+    public int nextTile(Board board) {
+        return cache.firstMove(board);
+    }
+
+    /** Return the cache of the paths, e.g., for its hit and miss
+     * counts. */
+    public SolutionCache cache() {
+        return cache;
+    }
+}
@@ -0,0 +1,114 @@
+package com.caiolopes.slidepuzzle.solver;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A depth-first search of iterative deepening A* (IDA*). The search
+ * slides the tiles of a single arrangement in place and undoes each
+ * move on the way back, updating the value of the heuristic
+ * incrementally, so it
+ * allocates nothing per node. Searches running in parallel may share
+ * a stop flag, by which the one finding a solution ends the others.
+ */
+final class IdaSearch {
+
+    /** Result of a search that found a solution. */
+    static final int FOUND = -1;
+
+    /** Estimate of the nodes. */
+    private final Heuristic heuristic;
+
+    /** Places adjacent to each place. */
+    private final int[][] neighbours;
+
+    /** Current arrangement of the search. */
+    private final int[] tiles;
+
+    /** Row-major index of the blank place of <code>tiles</code>. */
+    private int blank;
+
+    /** Tiles slid from the root to the current node. */
+    private int[] path = new int[128];
+
+    /** Number of moves of the solution found, if any. */
+    private int length;
+
+    /** Flag to stop the search, if any. */
+    private final AtomicBoolean stop;
+
+    /** Create a new search from the given arrangement, which is slid in
+     * place during the search. */
+    IdaSearch(Heuristic heuristic, int[] tiles) {
+        this(heuristic, tiles, null);
+    }
+
+    /** Create a new search from the given arrangement, which is slid in
+     * place during the search, that ends as soon as the given flag is
+     * set. */
+    IdaSearch(Heuristic heuristic, int[] tiles, AtomicBoolean stop) {
+        this.heuristic = heuristic;
+        this.tiles = tiles;
+        this.stop = stop;
+        neighbours = States.neighbours(heuristic.size());
+        blank = States.blank(tiles);
+    }
+
+    /** Return the value of the heuristic of the current arrangement. */
+    int value() {
+        return heuristic.value(tiles);
+    }
+
+    /** Return the tiles slid from the root to the solution found. */
+    int[] solution() {
+        final int[] result = new int[length];
+        System.arraycopy(path, 0, result, 0, length);
+        return result;
+    }
+
+    /** Search the subtree of the current node, the given number of
+     * moves away from the root and of the given value, for a
+     * solution of at most the given number of moves. The place of the
+     * blank before the last move, or -1, is given to avoid undoing the
+     * move. Return {@link #FOUND} if a solution was found, or else the
+     * least cost exceeding the bound, which is the bound of the next
+     * iteration. If stopped, {@link Integer#MAX_VALUE} is returned. */
+    int search(int cost, int value, int bound, int previous) {
+        final int estimate = heuristic.estimateOf(value);
+        final int f = cost + estimate;
+        if (f > bound) {
+            return f;
+        }
+        if (stop != null && stop.get()) {
+            return Integer.MAX_VALUE;
+        }
+        if (estimate == 0 && States.solved(tiles)) {
+            length = cost;
+            return FOUND;
+        }
+        if (cost == path.length) {
+            path = States.copyOf(path, 2 * cost);
+        }
+        final int to = blank;
+        int min = Integer.MAX_VALUE;
+        for (int from: neighbours[to]) {
+            if (from == previous) {
+                continue;
+            }
+            final int tile = tiles[from];
+            tiles[to] = tile;
+            tiles[from] = 0;
+            blank = from;
+            path[cost] = tile;
+            final int t = search(cost + 1,
+                heuristic.update(tiles, value, tile, from, to), bound, to);
+            tiles[from] = tile;
+            tiles[to] = 0;
+            blank = to;
+            if (t == FOUND) {
+                return FOUND;
+            }
+            min = Math.min(min, t);
+        }
+        return min;
+    }
+}
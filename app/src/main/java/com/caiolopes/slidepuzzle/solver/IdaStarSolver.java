@@ -0,0 +1,47 @@
+package com.caiolopes.slidepuzzle.solver;
+
+import com.caiolopes.slidepuzzle.model.Board;
+
+/**
+ * An iterative deepening A* (IDA*) solver. It runs depth-first searches
+ * of increasing cost bounds over a single arrangement slid in place, so
+ * it needs memory only for the current path, whatever the difficulty of
+ * the board. By default, nodes are estimated by Manhattan distance plus
+ * linear conflict.
+ *
+ * @see IdaSearch
+ */
+public class IdaStarSolver implements Solver {
+
+    /** Estimate of the nodes. */
+    private final Heuristic heuristic;
+
+    /** Create a new solver for boards of the given dimension. */
+    public IdaStarSolver(int size) {
+        this(new LinearConflictHeuristic(size));
+    }
+
+    /** Create a new solver using the given heuristic, which must be
+     * admissible for the results to be optimal. */
+    public IdaStarSolver(Heuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    /** {@inheritDoc} */
+    public int[] solve(Board board) {
+        States.checkSolvable(board, heuristic.size());
+        if (board.size() != heuristic.size()) {
+            throw new IllegalArgumentException("size: " + board.size());
+        }
+        final IdaSearch search = new IdaSearch(heuristic, board.arrangement());
+        final int value = search.value();
+        int bound = heuristic.estimateOf(value);
+        while (true) {
+            final int t = search.search(0, value, bound, -1);
+            if (t == IdaSearch.FOUND) {
+                return search.solution();
+            }
+            bound = t;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.caiolopes.slidepuzzle.solver;
+
+/**
+ * A binary min-heap of node numbers ordered by <code>int</code>
+ * priorities, kept in parallel primitive arrays.
+ */
+final class IntMinHeap {
+
+    /** Node numbers in heap order. */
+    private int[] nodes = new int[1 << 10];
+
+    /** Priorities of the nodes, in the same order. */
+    private int[] priorities = new int[nodes.length];
+
+    /** Number of nodes in this heap. */
+    private int count;
+
+    /** Is this heap empty? */
+    boolean isEmpty() {
+        return count == 0;
+    }
+
+    /** Add the given node with the given priority. */
+    void push(int node, int priority) {
+        if (count == nodes.length) {
+            nodes = States.copyOf(nodes, count * 2);
+            priorities = States.copyOf(priorities, count * 2);
+        }
+        int i = count++;
+        while (i > 0) {
+            final int parent = (i - 1) >>> 1;
+            if (priorities[parent] <= priority) {
+                break;
+            }
+            nodes[i] = nodes[parent];
+            priorities[i] = priorities[parent];
+            i = parent;
+        }
+        nodes[i] = node;
+        priorities[i] = priority;
+    }
+
+    /** Remove and return the node of the least priority. */
+    int pop() {
+        final int result = nodes[0];
+        final int node = nodes[--count];
+        final int priority = priorities[count];
+        int i = 0;
+        for (int child = 1; child < count; child = 2 * i + 1) {
+            if (child + 1 < count
+                && priorities[child + 1] < priorities[child]) {
+                child++;
+            }
+            if (priority <= priorities[child]) {
+                break;
+            }
+            nodes[i] = nodes[child];
+            priorities[i] = priorities[child];
+            i = child;
+        }
+        nodes[i] = node;
+        priorities[i] = priority;
+        return result;
+    }
+}
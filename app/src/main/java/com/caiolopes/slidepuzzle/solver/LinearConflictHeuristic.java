@@ -0,0 +1,128 @@
+package com.caiolopes.slidepuzzle.solver;
+
+/**
+ * Manhattan distance plus linear conflict. The Manhattan distance of a
+ * tile is the number of rows and columns between its place and its
+ * home place. Two tiles are in linear conflict if both are in their
+ * home row (or column) but in the reverse order; one of them must then
+ * leave the line and come back, which costs two more moves.
+ */
+public class LinearConflictHeuristic implements Heuristic {
+
+    /** Dimension of the boards this heuristic estimates. */
+    private final int size;
+
+    /** Create a new heuristic for boards of the given dimension, which
+     * must be at most 16. */
+    public LinearConflictHeuristic(int size) {
+        if (size > 16) {
+            throw new IllegalArgumentException("size: " + size);
+        }
+        this.size = size;
+    }
+
+    /** {@inheritDoc} */
+    public int size() {
+        return size;
+    }
+
+    /** {@inheritDoc} */
+    public int estimate(int[] tiles) {
+        int result = 0;
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] != 0) {
+                result += distance(tiles[i], i);
+            }
+        }
+        for (int line = 0; line < size; line++) {
+            result += 2 * (rowConflicts(tiles, line)
+                           + columnConflicts(tiles, line));
+        }
+        return result;
+    }
+
+    /** {@inheritDoc} The value is the estimate. */
+    public int value(int[] tiles) {
+        return estimate(tiles);
+    }
+
+    /** {@inheritDoc} */
+    public int estimateOf(int value) {
+        return value;
+    }
+
+    /** {@inheritDoc} */
+    public int update(int[] tiles, int estimate, int tile, int from,
+                      int to) {
+        // Only the lines the tile left and entered across the move
+        // change their conflicts.
+        final boolean horizontal = from / size == to / size;
+        tiles[from] = tile;
+        tiles[to] = 0;
+        final int before = conflicts(tiles, horizontal, from, to);
+        tiles[from] = 0;
+        tiles[to] = tile;
+        final int after = conflicts(tiles, horizontal, from, to);
+        return estimate + distance(tile, to) - distance(tile, from)
+            + 2 * (after - before);
+    }
+
+    /** Return the conflicts of the two columns, for a horizontal move,
+     * or the two rows of the given places. */
+    private int conflicts(int[] tiles, boolean horizontal, int from,
+                          int to) {
+        return horizontal
+            ? columnConflicts(tiles, from % size)
+                + columnConflicts(tiles, to % size)
+            : rowConflicts(tiles, from / size)
+                + rowConflicts(tiles, to / size);
+    }
+
+    /** Return the Manhattan distance of the given tile at the given
+     * place from its home place. */
+    private int distance(int tile, int place) {
+        final int home = tile - 1;
+        return Math.abs(home / size - place / size)
+            + Math.abs(home % size - place % size);
+    }
+
+    /** Return the least number of tiles to be removed from the given row
+     * so that the rest of its tiles at home in the row are in order. */
+    private int rowConflicts(int[] tiles, int row) {
+        int count = 0;
+        int tails = 0;
+        for (int i = row * size; i < (row + 1) * size; i++) {
+            final int home = tiles[i] - 1;
+            if (tiles[i] != 0 && home / size == row) {
+                count++;
+                tails = longer(tails, home % size);
+            }
+        }
+        return count - Integer.bitCount(tails);
+    }
+
+    /** Return the least number of tiles to be removed from the given
+     * column so that the rest of its tiles at home in the column are in
+     * order. */
+    private int columnConflicts(int[] tiles, int column) {
+        int count = 0;
+        int tails = 0;
+        for (int i = column; i < tiles.length; i += size) {
+            final int home = tiles[i] - 1;
+            if (tiles[i] != 0 && home % size == column) {
+                count++;
+                tails = longer(tails, home / size);
+            }
+        }
+        return count - Integer.bitCount(tails);
+    }
+
+    /** Extend the patience-sorting piles of a longest increasing
+     * subsequence, given as the bit set of their top values, with the
+     * given value. The number of piles is the length of the
+     * subsequence. */
+    private static int longer(int tails, int value) {
+        final int above = tails & -(2 << value);
+        return (tails & ~Integer.lowestOneBit(above)) | (1 << value);
+    }
+}
@@ -0,0 +1,87 @@
+package com.caiolopes.slidepuzzle.solver;
+
+/**
+ * A hash map from packed arrangements to node numbers, using open
+ * addressing over primitive arrays instead of boxed entries. The key 0
+ * is reserved to mark empty slots; no packed arrangement of a board
+ * with tiles is 0.
+ */
+final class LongIntHashMap {
+
+    /** Keys of the slots; 0 for an empty slot. */
+    private long[] keys;
+
+    /** Values of the slots. */
+    private int[] values;
+
+    /** Number of keys in this map. */
+    private int count;
+
+    /** Number of bits to shift a hash right to index a slot. */
+    private int shift;
+
+    /** Create a new, empty map. */
+    LongIntHashMap() {
+        keys = new long[1 << 10];
+        values = new int[keys.length];
+        shift = 64 - 10;
+    }
+
+    /** Return the number of keys in this map. */
+    int size() {
+        return count;
+    }
+
+    /** Return the value of the given key, or -1 if it has none. */
+    int get(long key) {
+        for (int i = slot(key); ; i = (i + 1) & (keys.length - 1)) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+            if (keys[i] == 0) {
+                return -1;
+            }
+        }
+    }
+
+    /** Associate the given value with the given non-zero key. */
+    void put(long key, int value) {
+        int i = slot(key);
+        while (keys[i] != 0 && keys[i] != key) {
+            i = (i + 1) & (keys.length - 1);
+        }
+        if (keys[i] == 0) {
+            keys[i] = key;
+            if (++count > keys.length / 2) {
+                values[i] = value;
+                grow();
+                return;
+            }
+        }
+        values[i] = value;
+    }
+
+    /** Return the first slot to probe for the given key. */
+    private int slot(long key) {
+        return (int) ((key * 0x9e3779b97f4a7c15L) >>> shift);
+    }
+
+    /** Double the number of slots and rehash the keys. */
+    private void grow() {
+        final long[] oldKeys = keys;
+        final int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[keys.length];
+        shift--;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != 0) {
+                int i = slot(oldKeys[j]);
+                while (keys[i] != 0) {
+                    i = (i + 1) & (keys.length - 1);
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.caiolopes.slidepuzzle.solver;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import com.caiolopes.slidepuzzle.model.Permutations;
+
+/**
+ * A pattern database (PDB): the exact number of moves of the tiles of a
+ * pattern needed to bring them home from every placement, ignoring the
+ * other tiles except that they occupy places. The moves of other tiles
+ * are not counted, so the databases of disjoint patterns can be added.
+ *
+ * <p>A placement of the pattern tiles is indexed by its rank as a
+ * partial permutation of the places. As the number of moves is never
+ * less than the Manhattan distance of the pattern tiles and has the
+ * same parity, only half of their difference is stored, in a nibble.
+ *
+ * <p>A database file holds a header of the magic number, the dimension
+ * of the board, the number of pattern tiles and the tiles, as
+ * <code>int</code>s, followed by the nibbles, two in a byte. Files are
+ * loaded by mapping them into memory rather than reading them onto the
+ * heap.
+ */
+public class PatternDatabase {
+
+    /** Magic number of a database file. */
+    private static final int MAGIC = 0x50444231; // "PDB1"
+
+    /** Dimension of the board. */
+    private final int size;
+
+    /** Numbers of the pattern tiles. */
+    private final int[] pattern;
+
+    /** Index in <code>pattern</code> of each tile number, or -1 for
+     * tiles not in the pattern. */
+    private final int[] slot;
+
+    /** Half the difference of the number of moves and the Manhattan
+     * distance of each placement, two placements in a byte. */
+    private final ByteBuffer table;
+
+    /** Create a new database of the given pattern and table. */
+    PatternDatabase(int size, int[] pattern, ByteBuffer table) {
+        if (size * size > 32 || pattern.length > 12) {
+            throw new IllegalArgumentException("pattern too large");
+        }
+        this.size = size;
+        this.pattern = pattern.clone();
+        this.table = table;
+        slot = new int[size * size];
+        Arrays.fill(slot, -1);
+        for (int i = 0; i < pattern.length; i++) {
+            if (pattern[i] <= 0 || pattern[i] >= slot.length
+                || slot[pattern[i]] >= 0) {
+                throw new IllegalArgumentException("tile: " + pattern[i]);
+            }
+            slot[pattern[i]] = i;
+        }
+    }
+
+    /** Return the dimension of the board of this database. */
+    public int size() {
+        return size;
+    }
+
+    /** Return the numbers of the pattern tiles of this database. */
+    public int[] pattern() {
+        return pattern.clone();
+    }
+
+    /** Return the number of moves of the pattern tiles needed to bring
+     * them home in the given arrangement. */
+    public int estimate(int[] tiles) {
+        // the places of the pattern tiles, packed in 5 bits each
+        long places = 0;
+        int distance = 0;
+        for (int i = 0; i < tiles.length; i++) {
+            final int s = slot[tiles[i]];
+            if (s >= 0) {
+                places |= (long) i << (5 * s);
+                distance += distance(tiles[i], i);
+            }
+        }
+        final long rank = rank(places);
+        final int nibble = (table.get((int) (rank >>> 1))
+                            >>> (4 * (int) (rank & 1))) & 0xF;
+        return distance + 2 * nibble;
+    }
+
+    /** Return the Manhattan distance of the given tile at the given
+     * place from its home place. */
+    int distance(int tile, int place) {
+        final int home = tile - 1;
+        return Math.abs(home / size - place / size)
+            + Math.abs(home % size - place % size);
+    }
+
+    /** Return the rank of the given placement of the pattern tiles,
+     * packed in 5 bits each, among all placements. */
+    long rank(long places) {
+        final int n = size * size;
+        long result = 0;
+        long seen = 0;
+        for (int i = 0; i < pattern.length; i++) {
+            final int p = (int) (places >>> (5 * i)) & 0x1F;
+            result = result * (n - i) + Permutations.digit(seen, p);
+            seen |= 1L << p;
+        }
+        return result;
+    }
+
+    /** Unpack the placement of the given rank into the given array. */
+    void unrank(long rank, int[] places) {
+        Permutations.unrank(rank, places, pattern.length, size * size);
+    }
+
+    /** Return the number of placements of the pattern tiles. */
+    long placements() {
+        return Permutations.count(pattern.length, size * size);
+    }
+
+    /** Write this database to the given file. */
+    public void write(File file) throws IOException {
+        final DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(size);
+            out.writeInt(pattern.length);
+            for (int tile: pattern) {
+                out.writeInt(tile);
+            }
+            final int length = table.limit();
+            if (table.hasArray()) {
+                out.write(table.array(), table.arrayOffset(), length);
+            } else {
+                for (int i = 0; i < length; i++) {
+                    out.write(table.get(i));
+                }
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /** Load the database of the given file by mapping it into memory. */
+    public static PatternDatabase load(File file) throws IOException {
+        final FileInputStream in = new FileInputStream(file);
+        try {
+            final FileChannel channel = in.getChannel();
+            final ByteBuffer buffer = channel.map(
+                FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("not a pattern database: " + file);
+            }
+            final int size = buffer.getInt();
+            final int[] pattern = new int[buffer.getInt()];
+            for (int i = 0; i < pattern.length; i++) {
+                pattern[i] = buffer.getInt();
+            }
+            final PatternDatabase result =
+                new PatternDatabase(size, pattern, buffer.slice());
+            if (result.table.limit() != (result.placements() + 1) / 2) {
+                throw new IOException("truncated pattern database: " + file);
+            }
+            return result;
+        } finally {
+            in.close(); // the mapping stays valid
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.caiolopes.slidepuzzle.solver;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * The sum of the pattern databases of disjoint patterns that together
+ * cover all the tiles of a board. A slide moves the tile of a single
+ * pattern, so only that database needs to be looked up again.
+ *
+ * @see PatternDatabase
+ */
+public class PatternDatabaseHeuristic implements Heuristic {
+
+    /** Partition of the 15-puzzle into patterns of 5, 5 and 5 tiles. */
+    public static final int[][] FIFTEEN_5_5_5 = {
+        { 1, 2, 5, 6, 9 }, { 3, 4, 7, 8, 11 }, { 10, 12, 13, 14, 15 }
+    };
+
+    /** Partition of the 15-puzzle into patterns of 6, 6 and 3 tiles. */
+    public static final int[][] FIFTEEN_6_6_3 = {
+        { 1, 5, 6, 9, 10, 13 }, { 7, 8, 11, 12, 14, 15 }, { 2, 3, 4 }
+    };
+
+    /** Partition of the 24-puzzle into patterns of 6 tiles. */
+    public static final int[][] TWENTY_FOUR_6_6_6_6 = {
+        { 1, 2, 3, 6, 7, 8 }, { 4, 5, 9, 10, 14, 15 },
+        { 11, 12, 16, 17, 21, 22 }, { 13, 18, 19, 20, 23, 24 }
+    };
+
+    /** Dimension of the boards this heuristic estimates. */
+    private final int size;
+
+    /** Databases of the patterns. */
+    private final PatternDatabase[] databases;
+
+    /** Database of the pattern of each tile number. */
+    private final PatternDatabase[] databaseOf;
+
+    /** Create a new heuristic adding the given databases, whose patterns
+     * must partition the tiles of the same board. */
+    public PatternDatabaseHeuristic(PatternDatabase... databases) {
+        this.databases = databases.clone();
+        size = databases[0].size();
+        databaseOf = new PatternDatabase[size * size];
+        for (PatternDatabase database: databases) {
+            if (database.size() != size) {
+                throw new IllegalArgumentException("mixed board sizes");
+            }
+            for (int tile: database.pattern()) {
+                if (databaseOf[tile] != null) {
+                    throw new IllegalArgumentException("tile: " + tile);
+                }
+                databaseOf[tile] = database;
+            }
+        }
+        for (int tile = 1; tile < databaseOf.length; tile++) {
+            if (databaseOf[tile] == null) {
+                throw new IllegalArgumentException("tile: " + tile);
+            }
+        }
+    }
+
+    /** Return a new heuristic of the databases of the given partition of
+     * the tiles of a board of the given dimension. The database of each
+     * pattern is loaded from its file in the given directory. */
+    public static PatternDatabaseHeuristic load(File directory, int size,
+            int[][] partition) throws IOException {
+        final PatternDatabase[] databases =
+            new PatternDatabase[partition.length];
+        for (int i = 0; i < partition.length; i++) {
+            databases[i] = PatternDatabase.load(
+                new File(directory, fileName(size, partition[i])));
+        }
+        return new PatternDatabaseHeuristic(databases);
+    }
+
+    /** Return the name of the file of the database of the given pattern
+     * of a board of the given dimension. */
+    static String fileName(int size, int[] pattern) {
+        final StringBuilder result = new StringBuilder("pdb-" + size);
+        for (int tile: pattern) {
+            result.append('-').append(tile);
+        }
+        return result.append(".bin").toString();
+    }
+
+    /** {@inheritDoc} */
+    public int size() {
+        return size;
+    }
+
+    /** {@inheritDoc} */
+    public int estimate(int[] tiles) {
+        int result = 0;
+        for (PatternDatabase database: databases) {
+            result += database.estimate(tiles);
+        }
+        return result;
+    }
+
+    /** {@inheritDoc} The value is the estimate. */
+    public int value(int[] tiles) {
+        return estimate(tiles);
+    }
+
+    /** {@inheritDoc} */
+    public int estimateOf(int value) {
+        return value;
+    }
+
+    /** {@inheritDoc} */
+    public int update(int[] tiles, int estimate, int tile, int from,
+                      int to) {
+        final PatternDatabase database = databaseOf[tile];
+        tiles[from] = tile;
+        tiles[to] = 0;
+        final int before = database.estimate(tiles);
+        tiles[from] = 0;
+        tiles[to] = tile;
+        return estimate - before + database.estimate(tiles);
+    }
+}
@@ -0,0 +1,345 @@
+package com.caiolopes.slidepuzzle.solver;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.caiolopes.slidepuzzle.model.Board;
+
+/**
+ * A solver remembering the solutions of another, within a budget of
+ * bytes. Solutions are keyed by the packed arrangement of the board and
+ * stored compactly: a byte for the number of moves, followed by the
+ * direction in which the blank moves at each step, in 2 bits each. When
+ * a board is solved, the arrangements along its solution are cached too,
+ * with the rest of the solution, since boards are often solved, or
+ * hinted, move by move. They are cached from the goal back, so the
+ * board requested is the most recently used.
+ *
+ * <p>When the budget is exceeded, the least recently used solutions are
+ * evicted. With the {@link Policy#TINY_LFU TINY_LFU} policy, a new
+ * solution is cached only if its arrangement was requested at least as
+ * often of late as that of the solution it would evict, so that a burst
+ * of one-off boards does not flush popular ones. The arrangements along
+ * a solution, which were not requested, never evict a solution with
+ * {@link Policy#LRU LRU}; they are cached only in free space. With
+ * TINY_LFU, they evict one only if requested more often.
+ *
+ * <p>Only boards of dimension up to 4 are cached; others are passed to
+ * the underlying solver. This class is thread-safe if the underlying
+ * solver is; searches run outside of its lock.
+ */
+public class SolutionCache implements Solver {
+
+    /** Eviction policy of a cache. */
+    public enum Policy {
+
+        /** Cache every solution requested, evicting the least recently
+         * used. */
+        LRU,
+
+        /** Cache a solution only if it is requested at least as often as
+         * the least recently used one it evicts. */
+        TINY_LFU
+    }
+
+    /** Estimated bytes taken by a cached solution besides its moves: the
+     * map entry, the boxed key and the array header. */
+    static final int ENTRY_BYTES = 64;
+
+    /** Longest solution that can be cached. */
+    private static final int MAX_LENGTH = 255;
+
+    /** Estimated bytes of a cached solution, used to size the sketch. */
+    private static final int AVERAGE_BYTES = ENTRY_BYTES + 12;
+
+    /** The underlying solver. */
+    private final Solver solver;
+
+    /** Most bytes the cached solutions may take. */
+    private final long budget;
+
+    /** Recent frequency of the requested arrangements; null for LRU. */
+    private final FrequencySketch sketch;
+
+    /** Encoded solutions, keyed by packed arrangement, from the least
+     * recently used. */
+    private final LinkedHashMap<Long, byte[]> solutions =
+        new LinkedHashMap<Long, byte[]>(16, 0.75f, true);
+
+    /** Estimated bytes taken by the cached solutions. */
+    private long bytes;
+
+    /** Number of requests answered from this cache. */
+    private long hits;
+
+    /** Number of requests passed to the underlying solver. */
+    private long misses;
+
+    /** Number of solutions evicted. */
+    private long evictions;
+
+    /** Number of solutions not cached by the admission policy. */
+    private long rejections;
+
+    /** Create a new cache of the solutions of the given solver, taking
+     * at most the given number of bytes, with the given policy. */
+    public SolutionCache(Solver solver, long budget, Policy policy) {
+        if (budget <= 0) {
+            throw new IllegalArgumentException("budget: " + budget);
+        }
+        this.solver = solver;
+        this.budget = budget;
+        sketch = policy == Policy.TINY_LFU
+            ? new FrequencySketch((int) Math.min(budget / AVERAGE_BYTES,
+                                                 Integer.MAX_VALUE))
+            : null;
+    }
+
+    /** {@inheritDoc} */
+    public int[] solve(Board board) {
+        if (board.size() > States.MAX_PACKED_SIZE) {
+            return solver.solve(board);
+        }
+        final int[] tiles = board.arrangement();
+        final long key = States.pack(tiles);
+        final byte[] cached = lookUp(key);
+        if (cached != null) {
+            return decode(cached, tiles, board.size());
+        }
+        final int[] result = solver.solve(board);
+        store(key, tiles, board.size(), result);
+        return result;
+    }
+
+    /** Return the number of the tile slid first by the solution of the
+     * given board, or 0 if it is solved. Only the first move of a cached
+     * solution is decoded. */
+    public int firstMove(Board board) {
+        if (board.size() > States.MAX_PACKED_SIZE) {
+            return first(solver.solve(board));
+        }
+        final int[] tiles = board.arrangement();
+        final long key = States.pack(tiles);
+        final byte[] cached = lookUp(key);
+        if (cached != null) {
+            if (cached[0] == 0) {
+                return 0;
+            }
+            return tiles[States.blank(tiles)
+                         + offset(direction(cached, 4), board.size())];
+        }
+        final int[] result = solver.solve(board);
+        store(key, tiles, board.size(), result);
+        return first(result);
+    }
+
+    /** Return the number of moves needed to solve the given board. */
+    public int length(Board board) {
+        if (board.size() > States.MAX_PACKED_SIZE) {
+            return solver.solve(board).length;
+        }
+        final int[] tiles = board.arrangement();
+        final long key = States.pack(tiles);
+        final byte[] cached = lookUp(key);
+        if (cached != null) {
+            return cached[0] & 0xFF;
+        }
+        final int[] result = solver.solve(board);
+        store(key, tiles, board.size(), result);
+        return result.length;
+    }
+
+    /** Return the number of requests answered from this cache. */
+    public synchronized long hitCount() {
+        return hits;
+    }
+
+    /** Return the number of requests passed to the underlying solver. */
+    public synchronized long missCount() {
+        return misses;
+    }
+
+    /** Return the number of solutions evicted from this cache. */
+    public synchronized long evictionCount() {
+        return evictions;
+    }
+
+    /** Return the number of solutions the admission policy declined to
+     * cache. */
+    public synchronized long rejectionCount() {
+        return rejections;
+    }
+
+    /** Return the number of solutions cached. */
+    public synchronized int size() {
+        return solutions.size();
+    }
+
+    /** Return the estimated number of bytes taken by the solutions
+     * cached. */
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    /** Return the encoded solution of the given arrangement, or null if
+     * it is not cached, counting the request. */
+    private synchronized byte[] lookUp(long key) {
+        if (sketch != null) {
+            sketch.increment(key);
+        }
+        final byte[] result = solutions.get(key);
+        if (result != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return result;
+    }
+
+    /** Cache the given solution of the given arrangement, of the given
+     * dimension, and the rest of it for each arrangement along it. The
+     * arrangement is changed along the way. */
+    private synchronized void store(long key, int[] tiles, int size,
+                                    int[] moves) {
+        if (moves.length > MAX_LENGTH) {
+            return;
+        }
+        final byte[] directions = encode(tiles, size, moves);
+        final long[] keys = new long[moves.length + 1];
+        keys[0] = key;
+        int blank = States.blank(tiles);
+        for (int i = 0; i < moves.length; i++) {
+            final int from = blank + offset(direction(directions, i), size);
+            keys[i + 1] = States.slide(keys[i], tiles[from], from, blank);
+            tiles[blank] = tiles[from];
+            tiles[from] = 0;
+            blank = from;
+        }
+        // from the goal back, so that the arrangement requested is the
+        // most recently used and is not evicted by those along it
+        for (int i = moves.length; i > 0; i--) {
+            admit(keys[i], suffix(directions, i, moves.length - i), true);
+        }
+        admit(key, suffix(directions, 0, moves.length), false);
+    }
+
+    /** Cache the given encoded solution of the given arrangement, if the
+     * policy admits it, evicting others as needed. A speculative one, of
+     * an arrangement not requested, is not cached again if cached. */
+    private void admit(long key, byte[] solution, boolean speculative) {
+        final long cost = ENTRY_BYTES + solution.length;
+        if (cost > budget) {
+            rejections++;
+            return;
+        }
+        if (speculative && solutions.containsKey(key)) {
+            return;
+        }
+        final byte[] old = solutions.remove(key);
+        if (old != null) {
+            bytes -= ENTRY_BYTES + old.length;
+        }
+        if (old == null && bytes + cost > budget
+            && !evicts(key, solutions.keySet().iterator().next(),
+                       speculative)) {
+            rejections++;
+            return;
+        }
+        final Iterator<Map.Entry<Long, byte[]>> eldest =
+            solutions.entrySet().iterator();
+        while (bytes + cost > budget) {
+            final Map.Entry<Long, byte[]> victim = eldest.next();
+            bytes -= ENTRY_BYTES + victim.getValue().length;
+            eldest.remove();
+            evictions++;
+        }
+        solutions.put(key, solution);
+        bytes += cost;
+    }
+
+    /** May the solution of the given arrangement evict that of the given
+     * victim, the least recently used? */
+    private boolean evicts(long key, long victim, boolean speculative) {
+        if (sketch == null) {
+            return !speculative;
+        }
+        final int frequency = sketch.frequency(key);
+        final int other = sketch.frequency(victim);
+        return speculative ? frequency > other : frequency >= other;
+    }
+
+    /** Return the direction in which the blank moves at each step of
+     * the given solution of the given arrangement, 4 to a byte. */
+    private static byte[] encode(int[] tiles, int size, int[] moves) {
+        final int[] where = new int[tiles.length];
+        for (int i = 0; i < tiles.length; i++) {
+            where[tiles[i]] = i;
+        }
+        final byte[] result = new byte[(moves.length + 3) / 4];
+        int blank = where[0];
+        for (int i = 0; i < moves.length; i++) {
+            final int from = where[moves[i]];
+            final int direction = from == blank - size ? 0
+                : from == blank + size ? 1 : from == blank - 1 ? 2 : 3;
+            result[i / 4] |= direction << (2 * (i % 4));
+            where[moves[i]] = blank;
+            blank = from;
+        }
+        return result;
+    }
+
+    /** Return the solution of the given length starting at the given
+     * step of the given directions, with its length in the first byte. */
+    private static byte[] suffix(byte[] directions, int start, int length) {
+        final byte[] result = new byte[1 + (length + 3) / 4];
+        result[0] = (byte) length;
+        for (int i = 0; i < length; i++) {
+            result[1 + i / 4] |=
+                direction(directions, start + i) << (2 * (i % 4));
+        }
+        return result;
+    }
+
+    /** Return the tiles slid by the given encoded solution of the given
+     * arrangement, which is changed along the way. */
+    private static int[] decode(byte[] solution, int[] tiles, int size) {
+        final int[] result = new int[solution[0] & 0xFF];
+        int blank = States.blank(tiles);
+        for (int i = 0; i < result.length; i++) {
+            final int from = blank + offset(direction(solution, 4 + i),
+                                            size);
+            result[i] = tiles[from];
+            tiles[blank] = tiles[from];
+            tiles[from] = 0;
+            blank = from;
+        }
+        return result;
+    }
+
+    /** Return the first tile slid by the given moves, or 0 if none. */
+    private static int first(int[] moves) {
+        return moves.length > 0 ? moves[0] : 0;
+    }
+
+    /** Return the direction of the given step, in 2-bit units from the
+     * start of the given bytes. */
+    private static int direction(byte[] directions, int step) {
+        return (directions[step / 4] >>> (2 * (step % 4))) & 3;
+    }
+
+    /** Return the offset of the place the blank moves to in the given
+     * direction: up, down, left or right. */
+    private static int offset(int direction, int size) {
+        switch (direction) {
+        case 0:
+            return -size;
+        case 1:
+            return size;
+        case 2:
+            return -1;
+        default:
+            return 1;
+        }
+    }
+}
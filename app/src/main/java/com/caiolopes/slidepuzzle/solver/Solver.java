@@ -0,0 +1,20 @@
+package com.caiolopes.slidepuzzle.solver;
+
+import com.caiolopes.slidepuzzle.model.Board;
+
+/**
+ * An engine that finds an optimal, i.e., shortest, sequence of tile
+ * moves that solves a puzzle board.
+ *
+ * @see Board
+ */
+public interface Solver {
+
+    /** Return the numbers of the tiles to slide, in order, to solve the
+     * given board with the fewest moves; an empty array is returned if
+     * the board is already solved. The board itself is not changed.
+     *
+     * @throws IllegalArgumentException if the board is not solvable or
+     *         its dimension is not supported by this solver. */
+    int[] solve(Board board);
+}
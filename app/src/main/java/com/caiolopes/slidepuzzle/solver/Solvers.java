@@ -0,0 +1,66 @@
+package com.caiolopes.slidepuzzle.solver;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Factory of the solvers best suited to each dimension of board.
+ */
+public final class Solvers {
+
+    /** Directory of the pattern database files, or null if none. */
+    private static File databaseDirectory;
+
+    /** The 6-6-3 pattern databases of 4 * 4 boards, loaded from the
+     * directory when first needed; null if not loaded. */
+    private static Heuristic fifteenDatabases;
+
+    private Solvers() {
+    }
+
+    /** Set the directory in which the pattern database files of the
+     * solvers created next are looked for, or null if none. Solvers
+     * already created, e.g., those giving hints, are not changed. */
+    public static synchronized void setDatabaseDirectory(File directory) {
+        databaseDirectory = directory;
+        fifteenDatabases = null;
+    }
+
+    /** Return a new optimal solver suited to boards of the given
+     * dimension, at most 4: A* for 2 * 2 boards, table lookup for 3 * 3
+     * boards and IDA* for 4 * 4 boards. On 4 * 4 boards, IDA* uses the
+     * 6-6-3 pattern databases if their files are in the database
+     * directory, solving most boards within a second, or else walking
+     * distance, which may take tens of seconds. The solver may be shared
+     * between threads.
+     *
+     * @see #setDatabaseDirectory(File) */
+    public static Solver optimal(int size) {
+        switch (size) {
+        case 2:
+            return new AStarSolver(size);
+        case 3:
+            return new EightPuzzleTable();
+        case 4:
+            return new IdaStarSolver(fifteenHeuristic());
+        default:
+            throw new IllegalArgumentException("unsupported size: " + size);
+        }
+    }
+
+    /** Return the 6-6-3 pattern databases of 4 * 4 boards if their files
+     * are in the database directory, or else walking distance. */
+    private static synchronized Heuristic fifteenHeuristic() {
+        if (fifteenDatabases == null && databaseDirectory != null) {
+            try {
+                fifteenDatabases = PatternDatabaseHeuristic.load(
+                    databaseDirectory, 4,
+                    PatternDatabaseHeuristic.FIFTEEN_6_6_3);
+            } catch (IOException e) {
+                // not installed, or unreadable; looked for again next time
+            }
+        }
+        return fifteenDatabases != null ? fifteenDatabases
+            : new WalkingDistanceHeuristic();
+    }
+}
@@ -0,0 +1,123 @@
+package com.caiolopes.slidepuzzle.solver;
+
+import com.caiolopes.slidepuzzle.model.Board;
+
+/**
+ * Operations on arrangements of tiles shared by the solvers. An
+ * arrangement of a board of dimension up to 4 can be packed into a
+ * <code>long</code> as 4-bit tile numbers in row-major order, the first
+ * place in the lowest bits.
+ */
+final class States {
+
+    /** Largest dimension of a board whose arrangements can be packed. */
+    static final int MAX_PACKED_SIZE = 4;
+
+    private States() {
+    }
+
+    /** Check that the given board is solvable and no larger than the
+     * given dimension, as required by a solver. */
+    static void checkSolvable(Board board, int maxSize) {
+        if (board.size() > maxSize) {
+            throw new IllegalArgumentException("unsupported size: "
+                                               + board.size());
+        }
+        if (!board.solvable()) {
+            throw new IllegalArgumentException("unsolvable board");
+        }
+    }
+
+    /** Return the row-major indices of the places adjacent to each
+     * place of a board of the given dimension. */
+    static int[][] neighbours(int size) {
+        final int[][] result = new int[size * size][];
+        for (int i = 0; i < result.length; i++) {
+            final int x = i % size;
+            final int y = i / size;
+            int count = (x > 0 ? 1 : 0) + (x < size - 1 ? 1 : 0)
+                + (y > 0 ? 1 : 0) + (y < size - 1 ? 1 : 0);
+            result[i] = new int[count];
+            if (y > 0) {
+                result[i][--count] = i - size;
+            }
+            if (x > 0) {
+                result[i][--count] = i - 1;
+            }
+            if (x < size - 1) {
+                result[i][--count] = i + 1;
+            }
+            if (y < size - 1) {
+                result[i][--count] = i + size;
+            }
+        }
+        return result;
+    }
+
+    /** Return the solved arrangement of a board of the given dimension. */
+    static int[] goal(int size) {
+        final int[] result = new int[size * size];
+        for (int i = 0; i < result.length - 1; i++) {
+            result[i] = i + 1;
+        }
+        return result;
+    }
+
+    /** Is the given arrangement solved? */
+    static boolean solved(int[] tiles) {
+        for (int i = 0; i < tiles.length - 1; i++) {
+            if (tiles[i] != i + 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Return the row-major index of the blank place of the given
+     * arrangement. */
+    static int blank(int[] tiles) {
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] == 0) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("no blank place");
+    }
+
+    /** Pack the given arrangement into a <code>long</code>. */
+    static long pack(int[] tiles) {
+        long result = 0;
+        for (int i = tiles.length - 1; i >= 0; i--) {
+            result = (result << 4) | tiles[i];
+        }
+        return result;
+    }
+
+    /** Unpack the given packed arrangement into the given array and
+     * return the row-major index of its blank place. */
+    static int unpack(long state, int[] tiles) {
+        int blank = -1;
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = (int) (state >>> (4 * i)) & 0xF;
+            if (tiles[i] == 0) {
+                blank = i;
+            }
+        }
+        return blank;
+    }
+
+    /** Return the packed arrangement resulting from sliding the given
+     * tile from the place <code>from</code> to the blank place
+     * <code>to</code> of the given packed arrangement. */
+    static long slide(long state, int tile, int from, int to) {
+        return state + ((long) tile << (4 * to))
+            - ((long) tile << (4 * from));
+    }
+
+    /** Return a copy of the given array with the given length. */
+    static int[] copyOf(int[] array, int length) {
+        final int[] result = new int[length];
+        System.arraycopy(array, 0, result, 0, Math.min(length, array.length));
+        return result;
+    }
+}
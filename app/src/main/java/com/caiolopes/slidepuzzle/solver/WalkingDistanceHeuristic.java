@@ -0,0 +1,161 @@
+package com.caiolopes.slidepuzzle.solver;
+
+/**
+ * Walking distance (WD) of 4 * 4 boards. Looking only at rows, an
+ * arrangement is abstracted to the number of tiles in each row that
+ * belong to each row, together with the row of the blank. The walking
+ * distance of the rows is the least number of vertical moves that bring
+ * every tile to its home row in this abstraction, where any tile of a
+ * row adjacent to the blank can move; that of the columns is defined
+ * likewise. Unlike Manhattan distance, it accounts for tiles of the
+ * same row or column getting in each other's way.
+ *
+ * <p>Rows and columns share one table of about 25,000 abstract states,
+ * generated by a breadth-first search when the class is first used,
+ * together with the state each move of a tile leads to. The value of an
+ * arrangement is the number of the state of its rows and that of its
+ * columns, so a slide is followed by a lookup in the table of moves
+ * rather than by abstracting the arrangement again.
+ */
+public class WalkingDistanceHeuristic implements Heuristic {
+
+    /** Dimension of the boards this heuristic estimates. */
+    private static final int SIZE = 4;
+
+    /** Bit position of the row of the blank in an abstract state. */
+    private static final int BLANK_SHIFT = 3 * SIZE * SIZE;
+
+    /** Bit position of the number of the state of the rows in a value;
+     * that of the columns is in the bits below. */
+    private static final int ROWS_SHIFT = 15;
+
+    /** Abstract states, each packed as the number of tiles of each row
+     * that belong to each row, in 3 bits each, followed by the row of
+     * the blank; mapped to their numbers. */
+    private static final LongIntHashMap states = new LongIntHashMap();
+
+    /** Walking distance of each abstract state, by number. */
+    private static final byte[] distances;
+
+    /** Number of the state reached from each state by moving a tile of
+     * each home row towards each side, indexed by the state number times
+     * 8 plus the home row times 2 plus 1 if the tile moves down; -1 if
+     * there is no such move. */
+    private static final short[] moves;
+
+    static {
+        // number the abstract states by a breadth-first search from the
+        // goal, then look up the state each move leads to
+        long[] queue = new long[1 << 15];
+        byte[] depths = new byte[queue.length];
+        int count = 0;
+        queue[count++] = key(States.goal(SIZE), true);
+        states.put(queue[0], 0);
+        for (int head = 0; head < count; head++) {
+            for (int j = 0; j < 8; j++) {
+                final long child = move(queue[head], j >>> 1, (j & 1) != 0);
+                if (child >= 0 && states.get(child) < 0) {
+                    if (count == queue.length) {
+                        final long[] longer = new long[2 * count];
+                        System.arraycopy(queue, 0, longer, 0, count);
+                        queue = longer;
+                        final byte[] deeper = new byte[2 * count];
+                        System.arraycopy(depths, 0, deeper, 0, count);
+                        depths = deeper;
+                    }
+                    states.put(child, count);
+                    depths[count] = (byte) (depths[head] + 1);
+                    queue[count++] = child;
+                }
+            }
+        }
+        if (count > 1 << ROWS_SHIFT) {
+            throw new IllegalStateException("too many states: " + count);
+        }
+        distances = new byte[count];
+        System.arraycopy(depths, 0, distances, 0, count);
+        moves = new short[8 * count];
+        for (int i = 0; i < count; i++) {
+            for (int j = 0; j < 8; j++) {
+                final long child = move(queue[i], j >>> 1, (j & 1) != 0);
+                moves[8 * i + j] =
+                    (short) (child < 0 ? -1 : states.get(child));
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    public int size() {
+        return SIZE;
+    }
+
+    /** {@inheritDoc} */
+    public int estimate(int[] tiles) {
+        return estimateOf(value(tiles));
+    }
+
+    /** {@inheritDoc} The value is the number of the state of the rows
+     * and that of the columns. */
+    public int value(int[] tiles) {
+        return states.get(key(tiles, true)) << ROWS_SHIFT
+            | states.get(key(tiles, false));
+    }
+
+    /** {@inheritDoc} */
+    public int estimateOf(int value) {
+        return distances[value >>> ROWS_SHIFT]
+            + distances[value & ((1 << ROWS_SHIFT) - 1)];
+    }
+
+    /** {@inheritDoc} */
+    public int update(int[] tiles, int value, int tile, int from,
+                      int to) {
+        // a vertical move changes the rows, a horizontal one the columns
+        if (from / SIZE != to / SIZE) {
+            final int move = 8 * (value >>> ROWS_SHIFT)
+                + 2 * ((tile - 1) / SIZE) + (from < to ? 1 : 0);
+            return moves[move] << ROWS_SHIFT
+                | value & ((1 << ROWS_SHIFT) - 1);
+        }
+        final int move = 8 * (value & ((1 << ROWS_SHIFT) - 1))
+            + 2 * ((tile - 1) % SIZE) + (from < to ? 1 : 0);
+        return value & -(1 << ROWS_SHIFT) | moves[move];
+    }
+
+    /** Return the abstract state of the rows, or the columns, of the
+     * given arrangement. */
+    private static long key(int[] tiles, boolean rows) {
+        long result = 0;
+        for (int i = 0; i < tiles.length; i++) {
+            final int line = rows ? i / SIZE : i % SIZE;
+            if (tiles[i] == 0) {
+                result |= (long) line << BLANK_SHIFT;
+            } else {
+                final int home = tiles[i] - 1;
+                final int homeLine = rows ? home / SIZE : home % SIZE;
+                result += 1L << (3 * (SIZE * line + homeLine));
+            }
+        }
+        return result;
+    }
+
+    /** Return the abstract state reached from the given one by moving a
+     * tile of the given home row into the row of the blank, from the row
+     * above it if <code>down</code>, or else from the row below it; -1
+     * if there is no such tile or row. */
+    private static long move(long key, int home, boolean down) {
+        final int blank = (int) (key >>> BLANK_SHIFT);
+        final int row = down ? blank - 1 : blank + 1;
+        if (row < 0 || row >= SIZE) {
+            return -1;
+        }
+        final int shift = 3 * (SIZE * row + home);
+        if (((key >>> shift) & 7) == 0) {
+            return -1;
+        }
+        return key - (1L << shift)
+            + (1L << (3 * (SIZE * blank + home)))
+            - ((long) blank << BLANK_SHIFT)
+            + ((long) row << BLANK_SHIFT);
+    }
+}
@@ -0,0 +1,208 @@
+package com.caiolopes.slidepuzzle.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link Board}.
+ */
+public class BoardTest {
+
+    /** Number of random arrangements tested for each dimension. */
+    private static final int ARRANGEMENTS = 2000;
+
+    @Test
+    public void solvableAgreesWithInversionsOnAllRanks() {
+        for (int size = 2; size <= 3; size++) {
+            final int n = size * size;
+            final long count = Permutations.count(n, n);
+            for (long rank = 0; rank < count; rank++) {
+                assertSolvableAgrees(Board.fromRank(size, rank));
+            }
+        }
+    }
+
+    @Test
+    public void solvableAgreesWithInversionsOnRandomRanks() {
+        final PuzzleRandom random = new PuzzleRandom(4);
+        final long count = Permutations.count(16, 16);
+        for (int i = 0; i < ARRANGEMENTS; i++) {
+            final long rank = (random.nextLong() >>> 1) % count;
+            assertSolvableAgrees(Board.fromRank(4, rank));
+        }
+    }
+
+    @Test
+    public void solvableAgreesWithInversionsOnRandomBoards() {
+        final PuzzleRandom random = new PuzzleRandom(7);
+        for (int size = 2; size <= 7; size++) {
+            final Board board = new Board(size);
+            for (int i = 0; i < ARRANGEMENTS; i++) {
+                board.rearrange(random.nextLong());
+                assertSolvableAgrees(board);
+                // swapping two tiles makes it unsolvable
+                swapTiles(board, random);
+                assertFalse(board.solvable());
+                assertSolvableAgrees(board);
+            }
+        }
+    }
+
+    @Test
+    public void rearrangeRecreatesThePuzzleOfASeed() {
+        for (int size = 2; size <= 7; size++) {
+            final Board board = new Board(size);
+            for (long seed = 0; seed < 100; seed++) {
+                board.rearrange(seed);
+                final int[] tiles = board.arrangement();
+                board.rearrange(seed + 1);
+                board.rearrange(seed);
+                assertArrayEquals(tiles, board.arrangement());
+                final Board other = new Board(size);
+                other.rearrange(seed);
+                assertArrayEquals(tiles, other.arrangement());
+                assertEquals(seed, other.seed());
+            }
+        }
+    }
+
+    @Test
+    public void fromRankInvertsRankOnAllRanks() {
+        for (int size = 1; size <= 3; size++) {
+            final int n = size * size;
+            final long count = Permutations.count(n, n);
+            for (long rank = 0; rank < count; rank++) {
+                assertEquals(rank, Board.fromRank(size, rank).rank());
+            }
+        }
+    }
+
+    @Test
+    public void rankRoundTripsOnRandomBoards() {
+        final PuzzleRandom random = new PuzzleRandom(15);
+        for (int size = 1; size <= 4; size++) {
+            final Board board = new Board(size);
+            for (int i = 0; i < ARRANGEMENTS; i++) {
+                board.rearrange(random.nextLong());
+                final int[] tiles = board.arrangement();
+                final long rank = board.rank();
+                assertEquals(Permutations.rank(tiles), rank);
+                final Board copy = Board.fromRank(size, rank);
+                assertArrayEquals(tiles, copy.arrangement());
+                assertEquals(board.solved(), copy.solved());
+                assertEquals(board.blank().getX(), copy.blank().getX());
+                assertEquals(board.blank().getY(), copy.blank().getY());
+            }
+        }
+    }
+
+    @Test
+    public void goalHasTheRankOfItsArrangement() {
+        for (int size = 1; size <= 4; size++) {
+            final Board goal = new Board(size);
+            assertEquals(Permutations.rank(goal.arrangement()), goal.rank());
+            assertTrue(Board.fromRank(size, goal.rank()).solved());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fromRankRejectsRanksOutOfRange() {
+        Board.fromRank(3, Permutations.count(9, 9));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fromRankRejectsNegativeRanks() {
+        Board.fromRank(3, -1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rankRejectsBoardsLargerThan4() {
+        new Board(5).rank();
+    }
+
+    @Test
+    public void bestNextMoveIsNullForUnsolvableBoards() {
+        final PuzzleRandom random = new PuzzleRandom(16);
+        for (int size = 2; size <= 3; size++) {
+            final Board board = new Board(size);
+            for (int i = 0; i < 20; i++) {
+                board.rearrange(random.nextLong());
+                swapTiles(board, random);
+                assertNull(board.bestNextMove());
+            }
+        }
+    }
+
+    @Test
+    public void bestNextMoveSolvesTheBoard() {
+        final PuzzleRandom random = new PuzzleRandom(16);
+        for (int size = 2; size <= 3; size++) {
+            final Board board = new Board(size);
+            for (int i = 0; i < 20; i++) {
+                board.rearrange(random.nextLong());
+                for (int moves = 0; !board.solved(); moves++) {
+                    assertTrue(moves < 32);
+                    final Place next = board.bestNextMove();
+                    assertTrue(next.slidable());
+                    next.slide();
+                }
+                assertNull(board.bestNextMove());
+            }
+        }
+    }
+
+    @Test
+    public void setTileTradesPlacesWithTheBlank() {
+        final Board board = new Board(3);
+        final Place p = board.at(1, 1);
+        final Tile tile = p.getTile();
+        board.blank().setTile(tile);
+        assertSame(p, board.blank());
+        assertFalse(p.hasTile());
+        assertSame(tile, board.at(3, 3).getTile());
+        assertArrayEquals(new int[] {0, 2, 3, 4, 5, 6, 7, 8, 1},
+                          board.arrangement());
+        assertSolvableAgrees(board);
+    }
+
+    @Test
+    public void setTileNullMovesTheBlank() {
+        final Board board = new Board(3);
+        final Tile tile = board.at(2, 3).getTile();
+        board.at(2, 3).setTile(null);
+        assertSame(board.at(2, 3), board.blank());
+        assertSame(tile, board.at(3, 3).getTile());
+        assertFalse(board.solved());
+
+        // the moved tile slides back into the blank
+        assertTrue(board.at(3, 3).slidable());
+        board.at(3, 3).slide();
+        assertTrue(board.solved());
+        assertEquals(new Board(3).rank(), board.rank());
+    }
+
+    /** Swap two random tiles of the given board, leaving the blank. */
+    private static void swapTiles(Board board, PuzzleRandom random) {
+        final int n = board.size() * board.size();
+        final Place blank = board.blank();
+        Place p, q;
+        do {
+            p = board.at(random.nextInt(n));
+            q = board.at(random.nextInt(n));
+        } while (p == q || p == blank || q == blank);
+        final Tile tile = p.getTile();
+        p.setTile(q.getTile());
+        q.setTile(tile);
+    }
+
+    /** Assert that both solvability tests agree on the given board. */
+    private static void assertSolvableAgrees(Board board) {
+        assertEquals(board.solvableByInversions(), board.solvable());
+    }
+}
@@ -0,0 +1,114 @@
+package com.caiolopes.slidepuzzle.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link Permutations}, against partial permutations enumerated
+ * by brute force in lexicographic order.
+ */
+public class PermutationsTest {
+
+    /** Largest number of elements enumerated by brute force. */
+    private static final int MAX_N = 7;
+
+    @Test
+    public void rankIsTheLexicographicIndex() {
+        for (int n = 0; n <= MAX_N; n++) {
+            for (int k = 0; k <= n; k++) {
+                final List<int[]> all = enumerate(k, n);
+                for (int r = 0; r < all.size(); r++) {
+                    assertEquals(r, Permutations.rank(all.get(r), k, n));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void unrankIsTheLexicographicSequence() {
+        for (int n = 0; n <= MAX_N; n++) {
+            for (int k = 0; k <= n; k++) {
+                final List<int[]> all = enumerate(k, n);
+                final int[] elements = new int[k];
+                for (int r = 0; r < all.size(); r++) {
+                    Permutations.unrank(r, elements, k, n);
+                    assertArrayEquals(all.get(r), elements);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void countIsTheNumberOfSequences() {
+        for (int n = 0; n <= MAX_N; n++) {
+            for (int k = 0; k <= n; k++) {
+                assertEquals(enumerate(k, n).size(), Permutations.count(k, n));
+            }
+        }
+    }
+
+    @Test
+    public void fullPermutationsRankByLength() {
+        for (int n = 0; n <= MAX_N; n++) {
+            final List<int[]> all = enumerate(n, n);
+            final int[] elements = new int[n];
+            for (int r = 0; r < all.size(); r++) {
+                assertEquals(r, Permutations.rank(all.get(r)));
+                Permutations.unrank(r, elements);
+                assertArrayEquals(all.get(r), elements);
+            }
+        }
+    }
+
+    @Test
+    public void largeRanksRoundTrip() {
+        final PuzzleRandom random = new PuzzleRandom(15);
+        final int[][] sizes = { { 20, 20 }, { 16, 16 }, { 6, 25 },
+                                { 5, 64 }, { 10, 64 } };
+        for (int[] size: sizes) {
+            final int k = size[0];
+            final int n = size[1];
+            final long count = Permutations.count(k, n);
+            final int[] elements = new int[k];
+            for (int i = 0; i < 1000; i++) {
+                final long rank = (random.nextLong() >>> 1) % count;
+                Permutations.unrank(rank, elements, k, n);
+                assertEquals(rank, Permutations.rank(elements, k, n));
+            }
+            Permutations.unrank(count - 1, elements, k, n);
+            assertEquals(count - 1, Permutations.rank(elements, k, n));
+        }
+    }
+
+    /** Return all the partial permutations of <code>k</code> elements out
+     * of <code>n</code>, in lexicographic order. */
+    private static List<int[]> enumerate(int k, int n) {
+        final List<int[]> result = new ArrayList<int[]>();
+        enumerate(new int[k], 0, new boolean[n], result);
+        return result;
+    }
+
+    /** Add to the given list the partial permutations extending the
+     * first <code>i</code> of the given elements, in lexicographic
+     * order. */
+    private static void enumerate(int[] elements, int i, boolean[] used,
+                                  List<int[]> result) {
+        if (i == elements.length) {
+            result.add(elements.clone());
+            return;
+        }
+        for (int e = 0; e < used.length; e++) {
+            if (!used[e]) {
+                used[e] = true;
+                elements[i] = e;
+                enumerate(elements, i + 1, used, result);
+                used[e] = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.caiolopes.slidepuzzle.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.caiolopes.slidepuzzle.model.Board;
+import com.caiolopes.slidepuzzle.model.Place;
+import com.caiolopes.slidepuzzle.model.Tile;
+
+/**
+ * Tests of {@link SolutionCache}.
+ */
+public class SolutionCacheTest {
+
+    /** Budget large enough to cache every path solved. */
+    private static final long BUDGET = 1 << 20;
+
+    /** Length of the solutions of the boards of the eviction tests. */
+    private static final int LENGTH = 10;
+
+    @Test
+    public void firstMoveFollowsTheCachedSolution() {
+        for (SolutionCache.Policy policy: SolutionCache.Policy.values()) {
+            final Solver solver = Solvers.optimal(3);
+            final SolutionCache cache =
+                new SolutionCache(solver, BUDGET, policy);
+            final Board board = new Board(3);
+            for (long seed = 0; seed < 50; seed++) {
+                board.rearrange(seed);
+                final int[] path = solver.solve(board);
+                final long misses = cache.missCount();
+                for (int tile: path) {
+                    assertEquals(tile, cache.firstMove(board));
+                    board.slide(tileOf(board, tile));
+                }
+                assertEquals(0, cache.firstMove(board));
+                // only the first request searched; the rest were cached
+                assertEquals(misses + 1, cache.missCount());
+            }
+        }
+    }
+
+    @Test
+    public void firstMoveAgreesWithSolve() {
+        final SolutionCache cache = new SolutionCache(Solvers.optimal(3),
+            BUDGET, SolutionCache.Policy.LRU);
+        final Board board = new Board(3);
+        for (long seed = 0; seed < 50; seed++) {
+            board.rearrange(seed);
+            final int first = cache.firstMove(board);
+            assertEquals(cache.solve(board)[0], first);
+            assertEquals(first, cache.firstMove(board));
+        }
+    }
+
+    @Test
+    public void cachesEachArrangementAlongTheSolution() {
+        final SolutionCache cache = new SolutionCache(Solvers.optimal(3),
+            BUDGET, SolutionCache.Policy.LRU);
+        final Board board = boards(1).get(0);
+        final int[] path = cache.solve(board);
+        assertEquals(LENGTH, path.length);
+        assertEquals(LENGTH + 1, cache.size());
+        long bytes = 0;
+        for (int length = 0; length <= LENGTH; length++) {
+            bytes += cost(length);
+        }
+        assertEquals(bytes, cache.bytes());
+        for (int i = 0; i < path.length; i++) {
+            assertEquals(path.length - i, cache.length(board));
+            board.slide(tileOf(board, path[i]));
+        }
+        assertEquals(0, cache.length(board));
+        assertEquals(1, cache.missCount());
+        assertEquals(LENGTH + 1, cache.hitCount());
+        assertEquals(0, cache.evictionCount());
+    }
+
+    @Test
+    public void keepsTheBoardsRequestedInRotation() {
+        // each solution takes most of the budget with the rest of it
+        final List<Board> boards = boards(5);
+        for (SolutionCache.Policy policy: SolutionCache.Policy.values()) {
+            final SolutionCache cache =
+                new SolutionCache(Solvers.optimal(3), 2000, policy);
+            for (int i = 0; i < 2000; i++) {
+                cache.solve(boards.get(i % boards.size()));
+                assertTrue(cache.bytes() <= 2000);
+            }
+            assertEquals(boards.size(), cache.missCount());
+            assertEquals(2000 - boards.size(), cache.hitCount());
+        }
+    }
+
+    @Test
+    public void lruEvictsTheLeastRecentlyRequested() {
+        final List<Board> boards = boards(4);
+        final Board a = boards.get(0), b = boards.get(1),
+            c = boards.get(2), d = boards.get(3);
+        final SolutionCache cache = new SolutionCache(Solvers.optimal(3),
+            3 * cost(LENGTH), SolutionCache.Policy.LRU);
+        cache.solve(a);
+        cache.solve(b);
+        cache.solve(c);
+        // the arrangements along the solutions, cached in free space,
+        // were evicted first
+        assertEquals(3, cache.size());
+        assertEquals(3 * cost(LENGTH), cache.bytes());
+        cache.solve(a);
+        assertEquals(1, cache.hitCount());
+        cache.solve(d); // evicts b
+        final long evictions = cache.evictionCount();
+        cache.solve(c);
+        cache.solve(a);
+        assertEquals(3, cache.hitCount());
+        assertEquals(4, cache.missCount());
+        cache.solve(b);
+        assertEquals(5, cache.missCount());
+        assertEquals(evictions + 1, cache.evictionCount());
+        assertEquals(3 * cost(LENGTH), cache.bytes());
+    }
+
+    @Test
+    public void tinyLfuKeepsAPopularBoardFromOneOffs() {
+        final List<Board> boards = boards(21);
+        final Board popular = boards.get(0);
+        for (SolutionCache.Policy policy: SolutionCache.Policy.values()) {
+            // room for a single solution
+            final SolutionCache cache = new SolutionCache(
+                Solvers.optimal(3), cost(LENGTH), policy);
+            for (int i = 0; i < 3; i++) {
+                cache.solve(popular);
+            }
+            assertEquals(2, cache.hitCount());
+            for (Board board: boards.subList(1, boards.size())) {
+                cache.solve(board);
+            }
+            final long misses = cache.missCount();
+            cache.solve(popular);
+            if (policy == SolutionCache.Policy.TINY_LFU) {
+                // less frequent than the victim, none was admitted
+                assertEquals(misses, cache.missCount());
+                assertTrue(cache.rejectionCount() >= boards.size() - 1);
+            } else {
+                assertEquals(misses + 1, cache.missCount());
+            }
+            assertEquals(1, cache.size());
+            assertEquals(cost(LENGTH), cache.bytes());
+        }
+    }
+
+    @Test
+    public void tinyLfuAdmitsABoardOnceAsFrequentAsTheVictim() {
+        final List<Board> boards = boards(2);
+        final Board first = boards.get(0), second = boards.get(1);
+        final SolutionCache cache = new SolutionCache(Solvers.optimal(3),
+            cost(LENGTH), SolutionCache.Policy.TINY_LFU);
+        cache.solve(first); // evicts the goal, cached in free space
+        cache.solve(first);
+        final long evictions = cache.evictionCount();
+        cache.solve(second); // requested less often, rejected
+        assertEquals(evictions, cache.evictionCount());
+        cache.solve(second); // as often, evicts the other
+        assertEquals(evictions + 1, cache.evictionCount());
+        cache.solve(second);
+        assertEquals(2, cache.hitCount());
+        assertEquals(3, cache.missCount());
+        assertEquals(1, cache.size());
+    }
+
+    /** Return the estimated bytes of a cached solution of the given
+     * length. */
+    private static long cost(int length) {
+        return SolutionCache.ENTRY_BYTES + 1 + (length + 3) / 4;
+    }
+
+    /** Return the given number of distinct 3 * 3 boards whose solutions
+     * are of length {@link #LENGTH}. */
+    private static List<Board> boards(int count) {
+        final EightPuzzleTable table = new EightPuzzleTable();
+        final List<Board> result = new ArrayList<Board>();
+        for (long seed = 0; result.size() < count; seed++) {
+            final Board board = new Board(3);
+            board.rearrange(seed);
+            if (table.distance(board) == LENGTH) {
+                result.add(board);
+            }
+        }
+        return result;
+    }
+
+    /** Return the tile of the given number on the given board. */
+    private static Tile tileOf(Board board, int number) {
+        for (Place p: board.places()) {
+            if (p.hasTile() && p.getTile().number() == number) {
+                return p.getTile();
+            }
+        }
+        throw new IllegalArgumentException("tile: " + number);
+    }
+}
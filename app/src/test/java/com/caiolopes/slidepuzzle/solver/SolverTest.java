@@ -0,0 +1,204 @@
+package com.caiolopes.slidepuzzle.solver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Test;
+
+import com.caiolopes.slidepuzzle.model.Board;
+import com.caiolopes.slidepuzzle.model.PuzzleRandom;
+
+/**
+ * Tests of the solvers and heuristics against the exhaustive
+ * {@link EightPuzzleTable}, itself checked against a fresh search.
+ */
+public class SolverTest {
+
+    /** Number of random boards tested for each solver. */
+    private static final int BOARDS = 200;
+
+    /** Number of random moves from the goal of the 4 * 4 boards tested,
+     * few enough for every solver to solve them quickly. */
+    private static final int WALK = 40;
+
+    @Test
+    public void shippedTableMatchesAFreshSearch() throws IOException {
+        final InputStream in =
+            EightPuzzleTable.class.getResourceAsStream("eight-puzzle.bin");
+        assertNotNull(in);
+        final byte[] fresh = EightPuzzleTable.generate();
+        final byte[] shipped = new byte[fresh.length];
+        try {
+            new DataInputStream(in).readFully(shipped);
+            assertEquals(-1, in.read());
+        } finally {
+            in.close();
+        }
+        assertArrayEquals(fresh, shipped);
+    }
+
+    @Test
+    public void solversAreOptimalOn3x3Boards() {
+        final EightPuzzleTable table = new EightPuzzleTable();
+        final Solver[] solvers = {
+            table, new AStarSolver(3), new IdaStarSolver(3),
+            new BidirectionalSolver(), Solvers.optimal(3)
+        };
+        final Board board = new Board(3);
+        for (long seed = 0; seed < BOARDS; seed++) {
+            board.rearrange(seed);
+            final int distance = table.distance(board);
+            for (Solver solver: solvers) {
+                final int[] path = solver.solve(board);
+                assertEquals(distance, path.length);
+                assertSolves(board, path);
+            }
+        }
+    }
+
+    @Test
+    public void solversAreOptimalOn2x2Boards() {
+        final Solver[] solvers = {
+            new AStarSolver(2), new IdaStarSolver(2),
+            new BidirectionalSolver()
+        };
+        final Board board = new Board(2);
+        for (long seed = 0; seed < 50; seed++) {
+            board.rearrange(seed);
+            final int distance = solvers[0].solve(board).length;
+            for (Solver solver: solvers) {
+                final int[] path = solver.solve(board);
+                assertEquals(distance, path.length);
+                assertSolves(board, path);
+            }
+        }
+    }
+
+    @Test
+    public void solversAgreeOn4x4Boards() {
+        final Solver[] solvers = {
+            new IdaStarSolver(4), new AStarSolver(4),
+            new IdaStarSolver(new WalkingDistanceHeuristic()),
+            new BidirectionalSolver()
+        };
+        final PuzzleRandom random = new PuzzleRandom(4);
+        for (int i = 0; i < 20; i++) {
+            final Board board = walk(4, WALK, random);
+            final int distance = solvers[0].solve(board).length;
+            assertTrue(distance <= WALK);
+            for (Solver solver: solvers) {
+                final int[] path = solver.solve(board);
+                assertEquals(distance, path.length);
+                assertSolves(board, path);
+            }
+        }
+    }
+
+    @Test
+    public void linearConflictIsAdmissibleOn3x3Boards() {
+        final EightPuzzleTable table = new EightPuzzleTable();
+        final Heuristic heuristic = new LinearConflictHeuristic(3);
+        final Board board = new Board(3);
+        for (long seed = 0; seed < 20 * BOARDS; seed++) {
+            board.rearrange(seed);
+            assertTrue(heuristic.estimate(board.arrangement())
+                       <= table.distance(board));
+            assertUpdates(heuristic, board, table.solve(board));
+        }
+    }
+
+    @Test
+    public void walkingDistanceIsAdmissibleOn4x4Boards() {
+        final Heuristic heuristic = new WalkingDistanceHeuristic();
+        final Heuristic manhattan = new LinearConflictHeuristic(4);
+        final Solver solver = new IdaStarSolver(4);
+        final PuzzleRandom random = new PuzzleRandom(11);
+        for (int i = 0; i < BOARDS; i++) {
+            final Board board = walk(4, WALK, random);
+            final int[] tiles = board.arrangement();
+            final int[] path = solver.solve(board);
+            assertTrue(heuristic.estimate(tiles) <= path.length);
+            assertAllUpdates(heuristic, tiles);
+            assertUpdates(heuristic, board, path);
+            assertTrue(manhattan.estimate(tiles) <= path.length);
+        }
+        assertEquals(0, heuristic.estimate(States.goal(4)));
+    }
+
+    /** Assert that the given path solves the given board, replaying it
+     * on a copy of the board. */
+    private static void assertSolves(Board board, int[] path) {
+        final Board copy = Board.fromRank(board.size(), board.rank());
+        for (int tile: path) {
+            final int place = indexOf(copy.arrangement(), tile);
+            assertTrue(copy.slidable(place));
+            copy.at(place).slide();
+        }
+        assertTrue(copy.solved());
+    }
+
+    /** Assert that the value of the given heuristic updated along the
+     * given path of the given board is that of each arrangement. */
+    private static void assertUpdates(Heuristic heuristic, Board board,
+                                      int[] path) {
+        final int[] tiles = board.arrangement();
+        int value = heuristic.value(tiles);
+        for (int tile: path) {
+            final int to = States.blank(tiles);
+            final int from = indexOf(tiles, tile);
+            tiles[to] = tile;
+            tiles[from] = 0;
+            value = heuristic.update(tiles, value, tile, from, to);
+            assertEquals(heuristic.value(tiles), value);
+            assertEquals(heuristic.estimate(tiles),
+                         heuristic.estimateOf(value));
+        }
+        assertEquals(0, heuristic.estimateOf(value));
+    }
+
+    /** Assert that the value of the given heuristic updated by each move
+     * of the given arrangement is that of the arrangement moved to. */
+    private static void assertAllUpdates(Heuristic heuristic, int[] tiles) {
+        final int value = heuristic.value(tiles);
+        final int to = States.blank(tiles);
+        for (int from: States.neighbours(heuristic.size())[to]) {
+            final int tile = tiles[from];
+            tiles[to] = tile;
+            tiles[from] = 0;
+            assertEquals(heuristic.value(tiles),
+                heuristic.update(tiles, value, tile, from, to));
+            tiles[from] = tile;
+            tiles[to] = 0;
+        }
+    }
+
+    /** Return a board of the given dimension made by the given number of
+     * random moves from the goal. */
+    private static Board walk(int size, int moves, PuzzleRandom random) {
+        final Board board = new Board(size);
+        for (int i = 0; i < moves; ) {
+            final int place = random.nextInt(size * size);
+            if (board.slidable(place)) {
+                board.at(place).slide();
+                i++;
+            }
+        }
+        return board;
+    }
+
+    /** Return the row-major index of the given tile. */
+    private static int indexOf(int[] tiles, int tile) {
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] == tile) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("tile: " + tile);
+    }
+}
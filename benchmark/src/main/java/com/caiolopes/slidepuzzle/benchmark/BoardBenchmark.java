@@ -0,0 +1,115 @@
+package com.caiolopes.slidepuzzle.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.caiolopes.slidepuzzle.model.Board;
+import com.caiolopes.slidepuzzle.model.Place;
+import com.caiolopes.slidepuzzle.model.PuzzleRandom;
+import com.caiolopes.slidepuzzle.model.Tile;
+
+/**
+ * Benchmarks of the hot paths of {@link Board}, those run on every touch
+ * and every frame, for boards of dimension 3 to 10. Each board is
+ * arranged from a fixed seed, so that runs are comparable.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+
+    /** Seed of the arrangement of the board. */
+    private static final long SEED = 42;
+
+    /** Dimension of the board. */
+    @Param({ "3", "4", "5", "6", "7", "8", "9", "10" })
+    public int size;
+
+    /** The board. */
+    private Board board;
+
+    /** A tile next to the blank; sliding it twice restores the board. */
+    private Tile tile;
+
+    /** Indices of a place next to the blank. */
+    private int x, y;
+
+    /** Row-major indices of the blank and of the place at the far end
+     *  of its row; sliding the line of tiles to one and then to the
+     *  other restores the board. */
+    private int start, end;
+
+    @Setup
+    public void setUp() {
+        board = new Board(size, new PuzzleRandom(SEED));
+        board.rearrange(SEED);
+        final Place blank = board.blank();
+        x = blank.getX() > 1 ? blank.getX() - 1 : blank.getX() + 1;
+        y = blank.getY();
+        tile = board.at(x, y).getTile();
+        start = (y - 1) * size + blank.getX() - 1;
+        end = (y - 1) * size + (blank.getX() > size / 2 ? 0 : size - 1);
+    }
+
+    @Benchmark
+    public Board slide() {
+        board.slide(tile);
+        return board;
+    }
+
+    @Benchmark
+    public Board slideLine() {
+        board.slideLine(board.inLine(end) ? end : start);
+        return board;
+    }
+
+    @Benchmark
+    public boolean slidable() {
+        return board.at(x, y).slidable();
+    }
+
+    @Benchmark
+    public void at(Blackhole blackhole) {
+        for (int j = 1; j <= size; j++) {
+            for (int i = 1; i <= size; i++) {
+                blackhole.consume(board.at(i, j));
+            }
+        }
+    }
+
+    @Benchmark
+    public Place blank() {
+        return board.blank();
+    }
+
+    @Benchmark
+    public boolean solved() {
+        return board.solved();
+    }
+
+    @Benchmark
+    public boolean solvable() {
+        return board.solvable();
+    }
+
+    @Benchmark
+    public Board rearrange() {
+        board.rearrange();
+        return board;
+    }
+}
@@ -0,0 +1,124 @@
+package com.caiolopes.slidepuzzle.benchmark;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.caiolopes.slidepuzzle.model.Board;
+import com.caiolopes.slidepuzzle.model.Permutations;
+import com.caiolopes.slidepuzzle.solver.IdaStarSolver;
+import com.caiolopes.slidepuzzle.solver.LinearConflictHeuristic;
+import com.caiolopes.slidepuzzle.solver.ParallelIdaStarSolver;
+import com.caiolopes.slidepuzzle.solver.Solver;
+import com.caiolopes.slidepuzzle.solver.WalkingDistanceHeuristic;
+
+/**
+ * Benchmarks of the 4 * 4 solvers over a fixed corpus of boards: ten of
+ * Korf's 100 standard instances, whose optimal solutions take 42 to 57
+ * moves, hard enough for the heuristics to matter yet each solved within
+ * a second by IDA* with linear conflict. Each invocation solves every
+ * board of the corpus.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SolverBenchmark {
+
+    /** Dimension of the boards of the corpus. */
+    private static final int SIZE = 4;
+
+    /** Instances 1, 2, 4, 5, 6, 8, 9, 12, 13 and 79 of Korf's 100, of
+     * optimal solution lengths 57, 55, 56, 56, 52, 50, 46, 45, 46 and 42.
+     * As in Korf's paper, tiles are listed in row-major order with the
+     * blank, 0, first in the goal, which is turned upside down to the
+     * goal of the game by {@link #board(int[])}. */
+    private static final int[][] KORF = {
+        { 14, 13, 15, 7, 11, 12, 9, 5, 6, 0, 2, 1, 4, 8, 10, 3 },
+        { 13, 5, 4, 10, 9, 12, 8, 14, 2, 3, 7, 1, 0, 15, 11, 6 },
+        { 5, 12, 10, 7, 15, 11, 14, 0, 8, 2, 1, 13, 3, 4, 9, 6 },
+        { 4, 7, 14, 13, 10, 3, 9, 12, 11, 5, 6, 15, 1, 2, 8, 0 },
+        { 14, 7, 1, 9, 12, 3, 6, 15, 8, 11, 2, 5, 10, 0, 4, 13 },
+        { 12, 11, 15, 3, 8, 0, 4, 2, 6, 13, 9, 5, 14, 1, 10, 7 },
+        { 3, 14, 9, 11, 5, 4, 8, 2, 13, 12, 6, 7, 10, 1, 15, 0 },
+        { 14, 1, 9, 6, 4, 8, 12, 5, 7, 2, 3, 0, 10, 11, 13, 15 },
+        { 3, 6, 5, 2, 10, 0, 15, 14, 1, 4, 13, 12, 9, 8, 11, 7 },
+        { 0, 1, 9, 7, 11, 13, 5, 3, 14, 12, 4, 2, 8, 6, 10, 15 },
+    };
+
+    /** Solver to benchmark. */
+    @Param({ "ida-linear-conflict", "ida-walking-distance",
+             "parallel-ida-walking-distance" })
+    public String solver;
+
+    /** Boards of the corpus, in their initial arrangements. */
+    private Board[] corpus;
+
+    /** The solver to benchmark. */
+    private Solver instance;
+
+    /** Pool of the parallel solver, if any. */
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        corpus = new Board[KORF.length];
+        for (int i = 0; i < corpus.length; i++) {
+            corpus[i] = board(KORF[i]);
+        }
+        if ("ida-linear-conflict".equals(solver)) {
+            instance = new IdaStarSolver(new LinearConflictHeuristic(SIZE));
+        } else if ("ida-walking-distance".equals(solver)) {
+            instance = new IdaStarSolver(new WalkingDistanceHeuristic());
+        } else if ("parallel-ida-walking-distance".equals(solver)) {
+            pool = new ForkJoinPool();
+            instance = new ParallelIdaStarSolver(
+                new WalkingDistanceHeuristic(), pool);
+        } else {
+            throw new IllegalArgumentException("solver: " + solver);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public int solveCorpus() {
+        int moves = 0;
+        for (Board board: corpus) {
+            moves += instance.solve(board).length;
+        }
+        return moves;
+    }
+
+    /** Return the board of the given instance of Korf's, turned upside
+     * down: the tile at each place goes to the opposite place and is
+     * numbered from the other end, which keeps its distance to the goal
+     * unchanged. */
+    private static Board board(int[] instance) {
+        final int[] tiles = new int[instance.length];
+        for (int i = 0; i < instance.length; i++) {
+            tiles[tiles.length - 1 - i] =
+                instance[i] == 0 ? 0 : tiles.length - instance[i];
+        }
+        return Board.fromRank(SIZE, Permutations.rank(tiles));
+    }
+}
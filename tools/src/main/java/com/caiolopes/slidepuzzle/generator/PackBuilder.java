@@ -0,0 +1,276 @@
+package com.caiolopes.slidepuzzle.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.caiolopes.slidepuzzle.model.Board;
+import com.caiolopes.slidepuzzle.model.PuzzleRandom;
+import com.caiolopes.slidepuzzle.solver.Solver;
+import com.caiolopes.slidepuzzle.solver.Solvers;
+
+/**
+ * A headless builder of puzzle packs. Puzzles flow through a pipeline
+ * of four stages connected by bounded queues: a thread draws the seeds;
+ * a thread arranges a board from each seed, as {@link Board#rearrange(long)}
+ * does in the game; a thread per processor solves each board optimally;
+ * and the calling thread rates the puzzles by their optimal solution
+ * length and orders them for the pack. The bounded queues keep a fast
+ * stage from running ahead of a slow one.
+ *
+ * @see PuzzlePack
+ */
+public class PackBuilder {
+
+    /** Capacity of each queue between stages. */
+    private static final int QUEUE_CAPACITY = 1024;
+
+    /** Marker of the end of the jobs of a queue. */
+    private static final Job END = new Job(0);
+
+    /** Dimension of the boards. */
+    private final int size;
+
+    /** Number of puzzles to build. */
+    private final int count;
+
+    /** Source of the seeds of the puzzles. */
+    private final PuzzleRandom seeds;
+
+    /** Optimal solver of the boards. */
+    private final Solver solver;
+
+    /** Number of threads solving the boards. */
+    private final int solvers;
+
+    /** First failure of a stage, if any. */
+    private final AtomicReference<Throwable> failure =
+        new AtomicReference<Throwable>();
+
+    /** Create a new builder of the given number of puzzles of the given
+     * dimension, at most 4, seeded by the given random source. */
+    public PackBuilder(int size, int count, PuzzleRandom seeds) {
+        this(size, count, seeds, Solvers.optimal(size));
+    }
+
+    /** Create a new builder of the given number of puzzles of the given
+     * dimension, seeded by the given random source and solved by the
+     * given optimal solver, which must be thread-safe; e.g., IDA* with
+     * pattern databases solves 4 * 4 boards faster than the default. */
+    public PackBuilder(int size, int count, PuzzleRandom seeds,
+                       Solver solver) {
+        this.size = size;
+        this.count = count;
+        this.seeds = seeds;
+        this.solver = solver;
+        solvers = Runtime.getRuntime().availableProcessors();
+    }
+
+    /** Build the puzzles and return them in order of increasing optimal
+     * solution length. The first exception or error thrown by a stage, if
+     * any, is thrown once the pipeline is drained. */
+    public List<Puzzle> build() throws InterruptedException {
+        final BlockingQueue<Job> seeded =
+            new ArrayBlockingQueue<Job>(QUEUE_CAPACITY);
+        final BlockingQueue<Job> generated =
+            new ArrayBlockingQueue<Job>(QUEUE_CAPACITY);
+        final BlockingQueue<Job> solved =
+            new ArrayBlockingQueue<Job>(QUEUE_CAPACITY);
+        final Stage seeding = new Stage(null, seeded, 1, 1) {
+            void run(Job job) throws InterruptedException {
+                for (int i = 0; i < count && failure.get() == null; i++) {
+                    out.put(new Job(seeds.nextLong()));
+                }
+            }
+        };
+        final Stage generating = new Stage(seeded, generated, 1, solvers) {
+            void run(Job job) {
+                final Board board = new Board(size);
+                board.rearrange(job.seed);
+                job.rank = board.rank();
+            }
+        };
+        final Stage solving = new Stage(generated, solved, solvers, 1) {
+            void run(Job job) {
+                job.length = solver.solve(Board.fromRank(size, job.rank))
+                    .length;
+            }
+        };
+        solving.start();
+        generating.start();
+        seeding.start();
+        final List<Puzzle> result = new ArrayList<Puzzle>(count);
+        for (Job job = solved.take(); job != END; job = solved.take()) {
+            result.add(new Puzzle(size, job.rank, job.length, job.seed));
+        }
+        final Throwable e = failure.get();
+        if (e instanceof Error) {
+            throw (Error) e;
+        } else if (e != null) {
+            throw (RuntimeException) e;
+        }
+        Collections.sort(result, new Comparator<Puzzle>() {
+            public int compare(Puzzle p, Puzzle q) {
+                return p.length() != q.length() ? p.length() - q.length()
+                    : p.rank() < q.rank() ? -1 : p.rank() > q.rank() ? 1 : 0;
+            }
+        });
+        return result;
+    }
+
+    /** Build a pack of the given number of puzzles for each of the given
+     * dimensions, 3 and 4 if none is given, into the given directory:
+     * <code>&lt;directory&gt; &lt;count&gt; [&lt;size&gt;...]</code>. */
+    public static void main(String[] args)
+        throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("usage: PackBuilder <directory> <count>"
+                               + " [<size>...]");
+            System.exit(1);
+        }
+        final File directory = new File(args[0]);
+        final int count = Integer.parseInt(args[1]);
+        final int[] sizes = new int[args.length > 2 ? args.length - 2 : 2];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = args.length > 2 ? Integer.parseInt(args[i + 2]) : i + 3;
+        }
+        final PuzzleRandom seeds = new PuzzleRandom();
+        for (int size: sizes) {
+            final long start = System.currentTimeMillis();
+            final List<Puzzle> puzzles =
+                new PackBuilder(size, count, seeds.split()).build();
+            final File file = new File(directory, "pack-" + size + ".bin");
+            PuzzlePack.write(file, size, puzzles);
+            System.out.println(file + ": " + puzzles.size() + " puzzles in "
+                + (System.currentTimeMillis() - start) + " ms");
+        }
+    }
+
+    /** A puzzle going through the pipeline. */
+    private static class Job {
+
+        /** Seed of the puzzle. */
+        final long seed;
+
+        /** Rank of the arrangement, once generated. */
+        long rank;
+
+        /** Optimal solution length, once solved. */
+        int length;
+
+        /** Create a new job of the given seed. */
+        Job(long seed) {
+            this.seed = seed;
+        }
+    }
+
+    /** A stage of the pipeline, run by daemon threads that take jobs
+     * from an input queue, run them and put them to an output queue.
+     * The last thread of a stage to finish, even by failing, marks the
+     * end of the output queue for each thread of the next stage. After
+     * a failure of any stage, the jobs are drained without being run,
+     * so that no stage blocks on a full queue. */
+    private abstract class Stage {
+
+        /** Queue of the input jobs; null for a source stage, which runs
+         * once with no job. */
+        final BlockingQueue<Job> in;
+
+        /** Queue of the output jobs. */
+        final BlockingQueue<Job> out;
+
+        /** Number of threads of this stage still running. */
+        private final AtomicInteger running;
+
+        /** Number of threads of the next stage. */
+        private final int next;
+
+        /** Threads of this stage. */
+        private final Thread[] threads;
+
+        /** Create a new stage of the given number of threads followed by
+         * the given number of threads; it is started by {@link #start()}
+         * once constructed, so that no thread sees it half built. */
+        Stage(BlockingQueue<Job> in, BlockingQueue<Job> out, int threads,
+              int next) {
+            this.in = in;
+            this.out = out;
+            this.next = next;
+            running = new AtomicInteger(threads);
+            this.threads = new Thread[threads];
+            for (int i = 0; i < threads; i++) {
+                this.threads[i] = new Thread() {
+                    public void run() {
+                        work();
+                    }
+                };
+                this.threads[i].setDaemon(true);
+            }
+        }
+
+        /** Start the threads of this stage. */
+        void start() {
+            for (Thread thread: threads) {
+                thread.start();
+            }
+        }
+
+        /** Run the given job. */
+        abstract void run(Job job) throws InterruptedException;
+
+        /** Run the jobs of the input queue until its end. */
+        private void work() {
+            try {
+                if (in == null) {
+                    run(null);
+                } else {
+                    for (Job job = in.take(); job != END; job = in.take()) {
+                        if (failure.get() == null) {
+                            try {
+                                run(job);
+                                out.put(job);
+                            } catch (RuntimeException e) {
+                                failure.compareAndSet(null, e);
+                            } catch (Error e) {
+                                failure.compareAndSet(null, e);
+                            }
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                failure.compareAndSet(null, new IllegalStateException(e));
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                if (running.decrementAndGet() == 0) {
+                    end();
+                }
+            }
+        }
+
+        /** Mark the end of the output queue for each thread of the next
+         * stage, even if interrupted. */
+        private void end() {
+            boolean interrupted = false;
+            for (int i = 0; i < next; ) {
+                try {
+                    out.put(END);
+                    i++;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.caiolopes.slidepuzzle.generator;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.caiolopes.slidepuzzle.model.Board;
+import com.caiolopes.slidepuzzle.model.Permutations;
+import com.caiolopes.slidepuzzle.model.PuzzleRandom;
+import com.caiolopes.slidepuzzle.solver.Solver;
+import com.caiolopes.slidepuzzle.solver.Solvers;
+
+/**
+ * A generator of puzzles whose optimal solution length falls in a given
+ * range. The length of a puzzle is drawn uniformly from the range, and
+ * the puzzle is generated by a random walk of the blank from the goal,
+ * never undoing its last move, verified by an optimal solver. As each
+ * move changes the optimal solution length by exactly one, a walk whose
+ * arrangement is <code>d</code> moves short of the length is not solved
+ * again until <code>d</code> more moves are made; it thus stops exactly
+ * at the length, never overshooting it.
+ *
+ * <p>Each puzzle is determined by its seed. Many puzzles are generated
+ * in parallel as fork/join tasks, and passed to a listener as soon as
+ * each is generated. Lengths near the longest of the dimension are
+ * reached by few arrangements, and seldom by a random walk; 4 * 4
+ * puzzles longer than 60 moves are thus not generated.
+ */
+public class PuzzleGenerator {
+
+    /** Longest optimal solution length generated for each dimension:
+     * the longest of any 2 * 2 or 3 * 3 board, but only 60 of the 80 of
+     * 4 * 4 boards, whose walks seldom get longer; on one core, a 4 * 4
+     * puzzle of length 60 takes about 15 seconds. */
+    private static final int[] MAX_LENGTHS = { 0, 0, 6, 31, 60 };
+
+    /** Dimension of the boards. */
+    private final int size;
+
+    /** Least optimal solution length of a puzzle. */
+    private final int minLength;
+
+    /** Greatest optimal solution length of a puzzle. */
+    private final int maxLength;
+
+    /** Optimal solver verifying the puzzles. */
+    private final Solver solver;
+
+    /** Pool generating puzzles in parallel. */
+    private final ForkJoinPool pool;
+
+    /** Listener of generated puzzles. */
+    public interface Listener {
+
+        /** Called when the given puzzle is generated, by the thread
+         * that generated it. */
+        void generated(Puzzle puzzle);
+    }
+
+    /** Create a new generator of boards of the given dimension, at most
+     * 4, whose optimal solution lengths are between the given lengths,
+     * inclusive, generating on all available processors. Lengths beyond
+     * 6, 31 and 60 are not generated for dimensions 2, 3 and 4; the
+     * least length must not exceed them. */
+    public PuzzleGenerator(int size, int minLength, int maxLength) {
+        this(size, minLength, maxLength, Solvers.optimal(size),
+             new ForkJoinPool());
+    }
+
+    /** Create a new generator of boards of the given dimension, at most
+     * 4, whose optimal solution lengths are between the given lengths,
+     * inclusive, verified by the given optimal solver and generating in
+     * the given pool. The lengths are limited as above. */
+    public PuzzleGenerator(int size, int minLength, int maxLength,
+                           Solver solver, ForkJoinPool pool) {
+        if (size < 2 || size >= MAX_LENGTHS.length) {
+            throw new IllegalArgumentException("unsupported size: " + size);
+        }
+        if (minLength < 0 || minLength > maxLength
+            || minLength > MAX_LENGTHS[size]) {
+            throw new IllegalArgumentException("lengths: " + minLength
+                                               + ".." + maxLength);
+        }
+        this.size = size;
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+        this.solver = solver;
+        this.pool = pool;
+    }
+
+    /** Generate the puzzle of the given seed. The same seed always
+     * generates the same puzzle for the same dimension and lengths. */
+    public Puzzle generate(long seed) {
+        final PuzzleRandom random = new PuzzleRandom(seed);
+        final int target = minLength + random.nextInt(
+            Math.min(maxLength, MAX_LENGTHS[size]) - minLength + 1);
+        final int[] tiles = new int[size * size];
+        for (int i = 0; i < tiles.length - 1; i++) {
+            tiles[i] = i + 1;
+        }
+        final int[] moves = new int[4];
+        int blank = tiles.length - 1;
+        int previous = -1;
+        for (int skip = target; ; skip--) {
+            if (skip <= 0) {
+                final long rank = Permutations.rank(tiles);
+                final int length =
+                    solver.solve(Board.fromRank(size, rank)).length;
+                if (length == target) {
+                    return new Puzzle(size, rank, length, seed);
+                }
+                skip = target - length;
+            }
+            final int count = moves(blank, previous, moves);
+            final int to = moves[random.nextInt(count)];
+            tiles[blank] = tiles[to];
+            tiles[to] = 0;
+            previous = blank;
+            blank = to;
+        }
+    }
+
+    /** Generate the given number of puzzles in parallel, seeded by the
+     * given random source, and pass each to the given listener as soon
+     * as it is generated; return when all are generated. */
+    public void generate(PuzzleRandom seeds, int count, Listener listener) {
+        final long[] seedOf = new long[count];
+        for (int i = 0; i < count; i++) {
+            seedOf[i] = seeds.nextLong();
+        }
+        pool.invoke(new Task(seedOf, 0, count, listener));
+    }
+
+    /** Store into the given array the places the blank at the given
+     * place can move to, except the given previous place, and return
+     * their number. */
+    private int moves(int blank, int previous, int[] result) {
+        int count = 0;
+        if (blank >= size && blank - size != previous) {
+            result[count++] = blank - size;
+        }
+        if (blank < size * (size - 1) && blank + size != previous) {
+            result[count++] = blank + size;
+        }
+        if (blank % size > 0 && blank - 1 != previous) {
+            result[count++] = blank - 1;
+        }
+        if (blank % size < size - 1 && blank + 1 != previous) {
+            result[count++] = blank + 1;
+        }
+        return count;
+    }
+
+    /** Task generating the puzzles of a range of seeds, split in halves
+     * until a single puzzle is left. */
+    @SuppressWarnings("serial") // never serialized
+    private class Task extends RecursiveAction {
+
+        /** Seeds of the puzzles. */
+        private final long[] seeds;
+
+        /** First seed of the range. */
+        private final int from;
+
+        /** Seed past the last of the range. */
+        private final int to;
+
+        /** Listener of the generated puzzles. */
+        private final Listener listener;
+
+        /** Create a new task over the given range of seeds. */
+        Task(long[] seeds, int from, int to, Listener listener) {
+            this.seeds = seeds;
+            this.from = from;
+            this.to = to;
+            this.listener = listener;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new Task(seeds, from, middle, listener),
+                          new Task(seeds, middle, to, listener));
+            } else if (to > from) {
+                listener.generated(generate(seeds[from]));
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.caiolopes.slidepuzzle.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.caiolopes.slidepuzzle.model.Board;
+
+/**
+ * A multi-core iterative deepening A* (IDA*) solver. The tree of the
+ * board is expanded breadth-first until it has enough nodes to keep all
+ * processors busy; each iteration then searches the subtrees of these
+ * nodes as fork/join tasks, which idle processors steal from busy ones.
+ * The tasks share the bound of the next iteration, lowered atomically,
+ * and a stop flag set by the first task finding a solution; as every
+ * solution within the bound of an iteration is optimal, the others need
+ * not finish.
+ *
+ * @see IdaSearch
+ */
+public class ParallelIdaStarSolver implements Solver {
+
+    /** Number of subtrees per processor to search in each iteration. */
+    private static final int SUBTREES_PER_THREAD = 64;
+
+    /** Estimate of the nodes. */
+    private final Heuristic heuristic;
+
+    /** Pool running the searches of the subtrees. */
+    private final ForkJoinPool pool;
+
+    /** Create a new solver using the given heuristic, which must be
+     * admissible for the results to be optimal, and searching on all
+     * available processors. */
+    public ParallelIdaStarSolver(Heuristic heuristic) {
+        this(heuristic, new ForkJoinPool());
+    }
+
+    /** Create a new solver using the given heuristic, which must be
+     * admissible for the results to be optimal, and searching in the
+     * given pool. */
+    public ParallelIdaStarSolver(Heuristic heuristic, ForkJoinPool pool) {
+        this.heuristic = heuristic;
+        this.pool = pool;
+    }
+
+    /** {@inheritDoc} */
+    public int[] solve(Board board) {
+        States.checkSolvable(board, heuristic.size());
+        if (board.size() != heuristic.size()) {
+            throw new IllegalArgumentException("size: " + board.size());
+        }
+        final int[] tiles = board.arrangement();
+        if (States.solved(tiles)) {
+            return new int[0];
+        }
+        final List<Node> frontier = expand(tiles,
+            SUBTREES_PER_THREAD * pool.getParallelism());
+        if (States.solved(frontier.get(0).tiles)) {
+            return frontier.get(0).moves; // solved within the frontier
+        }
+        int bound = heuristic.estimate(tiles);
+        while (true) {
+            final Iteration iteration = new Iteration(frontier, bound);
+            pool.invoke(iteration.new Task(0, frontier.size()));
+            if (iteration.solution.get() != null) {
+                return iteration.solution.get();
+            }
+            bound = iteration.next.get();
+        }
+    }
+
+    /** Return the nodes of the first depth of the tree of the given
+     * arrangement that has at least the given number of nodes; or the
+     * first solved node, if any, at a lesser depth. */
+    private List<Node> expand(int[] tiles, int count) {
+        final int[][] neighbours = States.neighbours(heuristic.size());
+        List<Node> nodes = new ArrayList<Node>();
+        nodes.add(new Node(tiles, new int[0], -1, heuristic.value(tiles)));
+        while (nodes.size() < count) {
+            final List<Node> children = new ArrayList<Node>();
+            for (Node node: nodes) {
+                final int to = States.blank(node.tiles);
+                for (int from: neighbours[to]) {
+                    if (from == node.previous) {
+                        continue;
+                    }
+                    final int[] child = node.tiles.clone();
+                    final int tile = child[from];
+                    child[to] = tile;
+                    child[from] = 0;
+                    final int[] moves = States.copyOf(node.moves,
+                                                      node.moves.length + 1);
+                    moves[node.moves.length] = tile;
+                    final Node next = new Node(child, moves, to,
+                        heuristic.update(child, node.value, tile, from, to));
+                    if (heuristic.estimateOf(next.value) == 0
+                        && States.solved(child)) {
+                        final List<Node> result = new ArrayList<Node>();
+                        result.add(next);
+                        return result;
+                    }
+                    children.add(next);
+                }
+            }
+            nodes = children;
+        }
+        return nodes;
+    }
+
+    /** A node of the tree at which a subtree is searched. */
+    private static class Node {
+
+        /** Arrangement of this node. */
+        final int[] tiles;
+
+        /** Tiles slid from the root to this node. */
+        final int[] moves;
+
+        /** Place of the blank before the last move, or -1. */
+        final int previous;
+
+        /** Value of the heuristic of this node. */
+        final int value;
+
+        /** Create a new node. */
+        Node(int[] tiles, int[] moves, int previous, int value) {
+            this.tiles = tiles;
+            this.moves = moves;
+            this.previous = previous;
+            this.value = value;
+        }
+    }
+
+    /** An iteration of the search over the subtrees of the frontier. */
+    private class Iteration {
+
+        /** Nodes whose subtrees are searched. */
+        private final List<Node> frontier;
+
+        /** Bound of this iteration. */
+        private final int bound;
+
+        /** Least cost exceeding the bound, i.e., the bound of the next
+         * iteration. */
+        final AtomicInteger next = new AtomicInteger(Integer.MAX_VALUE);
+
+        /** Solution found, if any. */
+        final AtomicReference<int[]> solution = new AtomicReference<int[]>();
+
+        /** Set as soon as a solution is found. */
+        private final AtomicBoolean stop = new AtomicBoolean();
+
+        /** Create a new iteration of the given bound. */
+        Iteration(List<Node> frontier, int bound) {
+            this.frontier = frontier;
+            this.bound = bound;
+        }
+
+        /** Search the subtree of the given node. */
+        private void search(Node node) {
+            final int depth = node.moves.length;
+            final IdaSearch search = new IdaSearch(heuristic,
+                node.tiles.clone(), stop);
+            final int t = search.search(0, node.value, bound - depth,
+                                        node.previous);
+            if (t == IdaSearch.FOUND) {
+                final int[] rest = search.solution();
+                final int[] moves = States.copyOf(node.moves,
+                                                  depth + rest.length);
+                System.arraycopy(rest, 0, moves, depth, rest.length);
+                if (solution.compareAndSet(null, moves)) {
+                    stop.set(true);
+                }
+            } else if (t != Integer.MAX_VALUE) {
+                int min;
+                do {
+                    min = next.get();
+                } while (depth + t < min
+                         && !next.compareAndSet(min, depth + t));
+            }
+        }
+
+        /** A task searching the subtrees of a range of frontier nodes,
+         * splitting the range among forked tasks. */
+        @SuppressWarnings("serial") // never serialized
+        class Task extends RecursiveAction {
+
+            /** First node of the range. */
+            private final int from;
+
+            /** Node past the last of the range. */
+            private final int to;
+
+            /** Create a new task over the given range of nodes. */
+            Task(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            protected void compute() {
+                if (to - from > 1) {
+                    final int middle = (from + to) >>> 1;
+                    invokeAll(new Task(from, middle), new Task(middle, to));
+                } else if (!stop.get()) {
+                    search(frontier.get(from));
+                }
+            }
+        }
+    }
+}
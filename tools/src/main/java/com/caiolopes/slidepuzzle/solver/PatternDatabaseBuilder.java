@@ -0,0 +1,339 @@
+package com.caiolopes.slidepuzzle.solver;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Builds pattern databases, in parallel on all available processors,
+ * and writes them to the files the app loads.
+ *
+ * @see PatternDatabase
+ * @see PatternDatabaseHeuristic#load(File, int, int[][])
+ */
+public final class PatternDatabaseBuilder {
+
+    /** Not instantiable. */
+    private PatternDatabaseBuilder() {
+    }
+
+    /** Write the 6-6-3 pattern databases of 4 * 4 boards, used by
+     * {@link Solvers#optimal(int)}, to the given directory, skipping
+     * those already written. */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("usage: PatternDatabaseBuilder <directory>");
+            System.exit(1);
+        }
+        writeMissing(new File(args[0]), 4,
+                     PatternDatabaseHeuristic.FIFTEEN_6_6_3);
+    }
+
+    /** Build the database of each pattern of the given partition of the
+     * tiles of a board of the given dimension whose file is not in the
+     * given directory yet, and write it to the file. */
+    public static void writeMissing(File directory, int size,
+            int[][] partition) throws IOException {
+        for (int[] pattern: partition) {
+            final File file = new File(directory,
+                PatternDatabaseHeuristic.fileName(size, pattern));
+            if (!file.exists()) {
+                build(size, pattern).write(file);
+            }
+        }
+    }
+
+    /** Build the database of the given pattern tiles of a board of the
+     * given dimension, in parallel on all available processors. The
+     * search needs three bits for every placement and place of the
+     * blank, e.g., 35 MB for six tiles of a 4 * 4 board, but 1.2 GB for
+     * six tiles of a 5 * 5 board. */
+    public static PatternDatabase build(int size, int[] pattern) {
+        return build(size, pattern, null);
+    }
+
+    /** Build the database of the given pattern tiles of a board of the
+     * given dimension, reporting the progress to the given listener, if
+     * not null.
+     *
+     * @see #build(int, int[]) */
+    public static PatternDatabase build(int size, int[] pattern,
+                                        ProgressListener listener) {
+        // a database without a table, giving the ranks to the search
+        final PatternDatabase layout = new PatternDatabase(size, pattern,
+                                                           null);
+        final long placements = layout.placements();
+        if ((placements + 1) / 2 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("pattern too large");
+        }
+        final Search search = new Search(layout, listener);
+        final ForkJoinPool pool = new ForkJoinPool();
+        try {
+            search.run(pool);
+        } finally {
+            pool.shutdown();
+        }
+        final byte[] table = new byte[(int) ((placements + 1) / 2)];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (byte) (search.table.get(i >>> 2) >>> (8 * (i & 3)));
+        }
+        return new PatternDatabase(size, pattern, ByteBuffer.wrap(table));
+    }
+
+    /** To listen to the progress of building a database. */
+    public interface ProgressListener {
+
+        /** Called when all the search states of the given depth, i.e.,
+         * the given number of moves of the pattern tiles, have been
+         * expanded, reaching the given number of new states. */
+        void layerCompleted(int depth, long reached);
+    }
+
+    /**
+     * A breadth-first search backward from the goal, over the placements
+     * of the pattern tiles together with the region of places the blank
+     * can reach without moving them. Moves within the region are free,
+     * so each search state stands for the whole region, represented by
+     * its first place, and every move between states costs one.
+     *
+     * <p>The states of each depth are expanded in parallel, by fork/join
+     * tasks over chunks of the bit set of the states. Tasks share the
+     * bit sets and the table, marking bits and lowering nibbles by
+     * compare-and-set.
+     */
+    private static class Search {
+
+        /** Number of words of the bit set of states expanded by a task
+         * without forking. */
+        private static final int CHUNK = 1 << 10;
+
+        /** Database being built, giving the ranks. */
+        private final PatternDatabase database;
+
+        /** Numbers of the pattern tiles. */
+        private final int[] pattern;
+
+        /** Nibbles of the database being built, eight in an int. */
+        private final AtomicIntegerArray table;
+
+        /** Listener of the progress, if any. */
+        private final ProgressListener listener;
+
+        /** Number of places of the board. */
+        private final int n;
+
+        /** Bit set of the places adjacent to each place. */
+        private final int[] adjacent;
+
+        /** Search states visited so far, indexed by the rank of the
+         * placement times <code>n</code> plus the first place of the
+         * region of the blank. */
+        private final AtomicLongArray visited;
+
+        /** Search states of the current depth. */
+        private AtomicLongArray current;
+
+        /** Search states of the next depth. */
+        private AtomicLongArray next;
+
+        /** Create a new search of the given database. */
+        Search(PatternDatabase database, ProgressListener listener) {
+            this.database = database;
+            this.listener = listener;
+            pattern = database.pattern();
+            n = database.size() * database.size();
+            adjacent = new int[n];
+            final int[][] neighbours = States.neighbours(database.size());
+            for (int i = 0; i < n; i++) {
+                for (int j: neighbours[i]) {
+                    adjacent[i] |= 1 << j;
+                }
+            }
+            final long states = database.placements() * n;
+            if ((states + 63) / 64 > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("pattern too large");
+            }
+            final int words = (int) ((states + 63) / 64);
+            visited = new AtomicLongArray(words);
+            current = new AtomicLongArray(words);
+            next = new AtomicLongArray(words);
+            table = new AtomicIntegerArray(
+                (int) ((database.placements() + 7) / 8));
+            // the largest nibble until each placement is reached
+            for (int i = 0; i < table.length(); i++) {
+                table.set(i, -1);
+            }
+        }
+
+        /** Run the search in the given pool, filling the table. */
+        void run(ForkJoinPool pool) {
+            final int[] places = new int[pattern.length];
+            int occupied = 0;
+            for (int i = 0; i < places.length; i++) {
+                places[i] = pattern[i] - 1;
+                occupied |= 1 << places[i];
+            }
+            visit(database.rank(pack(places)), region(n - 1, occupied), 0,
+                  0);
+            for (int depth = 0; ; depth++) {
+                final AtomicLongArray t = current;
+                current = next;
+                next = t;
+                for (int i = 0; i < next.length(); i++) {
+                    next.set(i, 0);
+                }
+                final long reached = pool.invoke(
+                    new Expansion(0, current.length(), depth));
+                if (listener != null) {
+                    listener.layerCompleted(depth, reached);
+                }
+                if (reached == 0) {
+                    return;
+                }
+            }
+        }
+
+        /** A task expanding the states of a chunk of words of the bit
+         * set of the current depth, giving the number of new states. */
+        @SuppressWarnings("serial") // never serialized
+        private class Expansion extends RecursiveTask<Long> {
+
+            /** First word of the chunk. */
+            private final int from;
+
+            /** Word past the last of the chunk. */
+            private final int to;
+
+            /** Depth of the states. */
+            private final int depth;
+
+            /** Create a new task over the given chunk of words. */
+            Expansion(int from, int to, int depth) {
+                this.from = from;
+                this.to = to;
+                this.depth = depth;
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            protected Long compute() {
+                if (to - from > CHUNK) {
+                    final int middle = (from + to) >>> 1;
+                    final Expansion left = new Expansion(from, middle, depth);
+                    left.fork();
+                    final long right =
+                        new Expansion(middle, to, depth).compute();
+                    return right + left.join();
+                }
+                final int[] places = new int[pattern.length];
+                long result = 0;
+                for (int w = from; w < to; w++) {
+                    for (long bits = current.get(w); bits != 0;
+                         bits &= bits - 1) {
+                        final long state = 64L * w
+                            + Long.numberOfTrailingZeros(bits);
+                        result += expand(state / n, (int) (state % n),
+                                         depth, places);
+                    }
+                }
+                return result;
+            }
+        }
+
+        /** Expand the given state at the given depth, using the given
+         * array for its placement, and return the number of new states
+         * reached. */
+        private int expand(long rank, int first, int depth, int[] places) {
+            database.unrank(rank, places);
+            int occupied = 0;
+            int distance = 0;
+            for (int i = 0; i < places.length; i++) {
+                occupied |= 1 << places[i];
+                distance += database.distance(pattern[i],
+                                              places[i]);
+            }
+            final int region = region(first, occupied);
+            int result = 0;
+            for (int i = 0; i < places.length; i++) {
+                final int from = places[i];
+                final int tile = pattern[i];
+                for (int targets = adjacent[from] & region; targets != 0;
+                     targets &= targets - 1) {
+                    final int to = Integer.numberOfTrailingZeros(targets);
+                    places[i] = to;
+                    final long child = database.rank(pack(places));
+                    final int moved = (occupied & ~(1 << from)) | (1 << to);
+                    if (visit(child, region(from, moved), depth + 1,
+                              distance + database.distance(tile, to)
+                              - database.distance(tile, from))) {
+                        result++;
+                    }
+                }
+                places[i] = from;
+            }
+            return result;
+        }
+
+        /** Mark the given state reached at the given depth, where the
+         * pattern tiles are at the given Manhattan distance, as visited
+         * unless it already is, and return whether it was new. */
+        private boolean visit(long rank, int region, int depth,
+                              int distance) {
+            final long state = rank * n + Integer.numberOfTrailingZeros(region);
+            final int w = (int) (state >>> 6);
+            final long bit = 1L << state;
+            long bits;
+            do {
+                bits = visited.get(w);
+                if ((bits & bit) != 0) {
+                    return false;
+                }
+            } while (!visited.compareAndSet(w, bits, bits | bit));
+            do {
+                bits = next.get(w);
+            } while (!next.compareAndSet(w, bits, bits | bit));
+            // values beyond a nibble are cut, still a lower bound
+            final int value = Math.min(0xF, (depth - distance) / 2);
+            final int i = (int) (rank >>> 3);
+            final int shift = 4 * (int) (rank & 7);
+            int nibbles;
+            do {
+                nibbles = table.get(i);
+                if (value >= ((nibbles >>> shift) & 0xF)) {
+                    break;
+                }
+            } while (!table.compareAndSet(i, nibbles,
+                         (nibbles & ~(0xF << shift)) | (value << shift)));
+            return true;
+        }
+
+        /** Return the bit set of the places the blank can reach from the
+         * given place without moving the tiles at the given places. */
+        private int region(int place, int occupied) {
+            int result = 1 << place;
+            int frontier = result;
+            while (frontier != 0) {
+                int grown = 0;
+                for (int f = frontier; f != 0; f &= f - 1) {
+                    grown |= adjacent[Integer.numberOfTrailingZeros(f)];
+                }
+                frontier = grown & ~occupied & ~result;
+                result |= frontier;
+            }
+            return result;
+        }
+
+        /** Pack the given placement in 5 bits a place. */
+        private static long pack(int[] places) {
+            long result = 0;
+            for (int i = 0; i < places.length; i++) {
+                result |= (long) places[i] << (5 * i);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.caiolopes.slidepuzzle.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.caiolopes.slidepuzzle.model.Board;
+import com.caiolopes.slidepuzzle.model.PuzzleRandom;
+import com.caiolopes.slidepuzzle.solver.EightPuzzleTable;
+
+/**
+ * Tests of {@link PackBuilder} and of the packs it builds, read back by
+ * {@link PuzzlePack}.
+ */
+public class PackBuilderTest {
+
+    @Test
+    public void buildsRatedPuzzlesInOrder() throws InterruptedException {
+        final EightPuzzleTable table = new EightPuzzleTable();
+        final List<Puzzle> puzzles =
+            new PackBuilder(3, 500, new PuzzleRandom(3), table).build();
+        assertEquals(500, puzzles.size());
+        int last = 0;
+        for (Puzzle puzzle: puzzles) {
+            final Board board = new Board(3);
+            board.rearrange(puzzle.seed());
+            assertEquals(board.rank(), puzzle.rank());
+            assertEquals(table.distance(board), puzzle.length());
+            assertTrue(puzzle.length() >= last);
+            last = puzzle.length();
+        }
+    }
+
+    @Test
+    public void packRoundTrips() throws InterruptedException, IOException {
+        final List<Puzzle> puzzles = new PackBuilder(
+            3, 500, new PuzzleRandom(5), new EightPuzzleTable()).build();
+        final File file = File.createTempFile("pack-", ".bin");
+        try {
+            PuzzlePack.write(file, 3, puzzles);
+            final DataInputStream in =
+                new DataInputStream(new FileInputStream(file));
+            try {
+                assertEquals(0x53504b31, in.readInt());
+                assertEquals(3, in.readInt());
+                assertEquals(puzzles.size(), in.readInt());
+            } finally {
+                in.close();
+            }
+            assertEquals(12 + 17 * puzzles.size(), file.length());
+            final PuzzlePack pack = PuzzlePack.load(file);
+            assertEquals(3, pack.size());
+            assertEquals(puzzles.size(), pack.count());
+            for (int i = 0; i < puzzles.size(); i++) {
+                final Puzzle puzzle = pack.get(i);
+                assertEquals(puzzles.get(i).rank(), puzzle.rank());
+                assertEquals(puzzles.get(i).seed(), puzzle.seed());
+                assertEquals(puzzles.get(i).length(), puzzle.length());
+            }
+            for (int length = 0; length <= 32; length++) {
+                final int first = pack.first(length);
+                assertTrue(first == pack.count()
+                           || pack.get(first).length() >= length);
+                assertTrue(first == 0
+                           || pack.get(first - 1).length() < length);
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsATruncatedPack() throws IOException {
+        final File file = File.createTempFile("pack-", ".bin");
+        try {
+            final Puzzle puzzle = new Puzzle(3, 0, 0, 0);
+            PuzzlePack.write(file, 3, Collections.nCopies(2, puzzle));
+            final RandomAccessFile out = new RandomAccessFile(file, "rw");
+            try {
+                out.setLength(file.length() - 1);
+            } finally {
+                out.close();
+            }
+            PuzzlePack.load(file);
+        } finally {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.caiolopes.slidepuzzle.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.caiolopes.slidepuzzle.model.PuzzleRandom;
+import com.caiolopes.slidepuzzle.solver.EightPuzzleTable;
+
+/**
+ * Tests of {@link PuzzleGenerator}.
+ */
+public class PuzzleGeneratorTest {
+
+    @Test
+    public void generatesLengthsInTheRange() {
+        final EightPuzzleTable table = new EightPuzzleTable();
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final PuzzleGenerator generator =
+                new PuzzleGenerator(3, 12, 20, table, pool);
+            for (long seed = 0; seed < 200; seed++) {
+                final Puzzle puzzle = generator.generate(seed);
+                assertEquals(3, puzzle.size());
+                assertEquals(seed, puzzle.seed());
+                assertTrue(puzzle.length() >= 12 && puzzle.length() <= 20);
+                assertEquals(puzzle.length(),
+                             table.distance(puzzle.board()));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void sameSeedGeneratesTheSamePuzzle() {
+        final EightPuzzleTable table = new EightPuzzleTable();
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final PuzzleGenerator generator =
+                new PuzzleGenerator(3, 0, 31, table, pool);
+            final PuzzleGenerator other =
+                new PuzzleGenerator(3, 0, 31, table, pool);
+            for (long seed = 0; seed < 100; seed++) {
+                final Puzzle puzzle = generator.generate(seed);
+                assertEquals(puzzle.rank(), other.generate(seed).rank());
+                assertEquals(puzzle.length(), other.generate(seed).length());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void generatesEachPuzzleOfTheSeedsInParallel() {
+        final EightPuzzleTable table = new EightPuzzleTable();
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final PuzzleGenerator generator =
+                new PuzzleGenerator(3, 5, 25, table, pool);
+            final long[] seeds = new long[100];
+            final PuzzleRandom random = new PuzzleRandom(7);
+            for (int i = 0; i < seeds.length; i++) {
+                seeds[i] = random.nextLong();
+            }
+            final long[] ranks = new long[seeds.length];
+            final AtomicInteger count = new AtomicInteger();
+            generator.generate(new PuzzleRandom(7), seeds.length,
+                new PuzzleGenerator.Listener() {
+                    public void generated(Puzzle puzzle) {
+                        int i = 0;
+                        while (seeds[i] != puzzle.seed()) {
+                            i++;
+                        }
+                        ranks[i] = puzzle.rank();
+                        count.incrementAndGet();
+                    }
+                });
+            assertEquals(seeds.length, count.get());
+            for (int i = 0; i < seeds.length; i++) {
+                assertEquals(generator.generate(seeds[i]).rank(), ranks[i]);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.caiolopes.slidepuzzle.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.caiolopes.slidepuzzle.model.Board;
+import com.caiolopes.slidepuzzle.model.PuzzleRandom;
+
+/**
+ * Tests of {@link ParallelIdaStarSolver}.
+ */
+public class ParallelIdaStarSolverTest {
+
+    @Test
+    public void isOptimalOn3x3Boards() {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final Solver solver = new ParallelIdaStarSolver(
+                new LinearConflictHeuristic(3), pool);
+            final EightPuzzleTable table = new EightPuzzleTable();
+            final Board board = new Board(3);
+            for (long seed = 0; seed < 100; seed++) {
+                board.rearrange(seed);
+                final int[] path = solver.solve(board);
+                assertEquals(table.distance(board), path.length);
+                assertSolves(board, path);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void agreesWithIdaStarOn4x4Boards() {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final Solver solver = new ParallelIdaStarSolver(
+                new WalkingDistanceHeuristic(), pool);
+            final Solver serial = new IdaStarSolver(4);
+            final PuzzleRandom random = new PuzzleRandom(12);
+            for (int i = 0; i < 20; i++) {
+                final Board board = new Board(4);
+                for (int moves = 0; moves < 40; ) {
+                    final int place = random.nextInt(16);
+                    if (board.slidable(place)) {
+                        board.at(place).slide();
+                        moves++;
+                    }
+                }
+                final int[] path = solver.solve(board);
+                assertEquals(serial.solve(board).length, path.length);
+                assertSolves(board, path);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void solvesTheGoalAndBoardsNearIt() {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final Solver solver = new ParallelIdaStarSolver(
+                new LinearConflictHeuristic(3), pool);
+            final Board board = new Board(3);
+            assertEquals(0, solver.solve(board).length);
+            board.at(3, 2).slide();
+            board.at(2, 2).slide();
+            final int[] path = solver.solve(board);
+            assertEquals(2, path.length);
+            assertSolves(board, path);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Assert that the given path solves the given board, replaying it
+     * on a copy of the board. */
+    private static void assertSolves(Board board, int[] path) {
+        final Board copy = Board.fromRank(board.size(), board.rank());
+        for (int tile: path) {
+            final int[] tiles = copy.arrangement();
+            int place = 0;
+            while (tiles[place] != tile) {
+                place++;
+            }
+            assertTrue(copy.slidable(place));
+            copy.at(place).slide();
+        }
+        assertTrue(copy.solved());
+    }
+}
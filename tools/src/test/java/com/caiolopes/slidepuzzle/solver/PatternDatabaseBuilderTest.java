@@ -0,0 +1,108 @@
+package com.caiolopes.slidepuzzle.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.caiolopes.slidepuzzle.model.Board;
+import com.caiolopes.slidepuzzle.model.Permutations;
+
+/**
+ * Tests of {@link PatternDatabaseBuilder} and the databases it builds,
+ * against the exhaustive {@link EightPuzzleTable}.
+ */
+public class PatternDatabaseBuilderTest {
+
+    /** Partition of the tiles of a 3 * 3 board into two patterns. */
+    private static final int[][] EIGHT_4_4 = {
+        { 1, 2, 3, 4 }, { 5, 6, 7, 8 }
+    };
+
+    @Test
+    public void databaseOfAllTilesIsExact() {
+        // with every tile in the pattern, no move is free
+        final PatternDatabase database = PatternDatabaseBuilder.build(3,
+            new int[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+        final EightPuzzleTable table = new EightPuzzleTable();
+        int solvable = 0;
+        for (long rank = 0; rank < Permutations.count(9, 9); rank++) {
+            final Board board = Board.fromRank(3, rank);
+            if (board.solvable()) {
+                assertEquals(table.distance(board),
+                             database.estimate(board.arrangement()));
+                solvable++;
+            }
+        }
+        assertEquals(181440, solvable);
+    }
+
+    @Test
+    public void disjointDatabasesAreAdmissible() {
+        final PatternDatabaseHeuristic heuristic =
+            new PatternDatabaseHeuristic(
+                PatternDatabaseBuilder.build(3, EIGHT_4_4[0]),
+                PatternDatabaseBuilder.build(3, EIGHT_4_4[1]));
+        final EightPuzzleTable table = new EightPuzzleTable();
+        final Board board = new Board(3);
+        for (long seed = 0; seed < 2000; seed++) {
+            board.rearrange(seed);
+            final int[] tiles = board.arrangement();
+            final int estimate = heuristic.estimate(tiles);
+            assertTrue(estimate <= table.distance(board));
+            assertEquals(table.distance(board) % 2, estimate % 2);
+            assertUpdates(heuristic, tiles, table.solve(board));
+        }
+        assertEquals(0, heuristic.estimate(States.goal(3)));
+    }
+
+    @Test
+    public void writtenDatabasesLoadUnchanged() throws IOException {
+        final File directory = File.createTempFile("pdb", "");
+        assertTrue(directory.delete() && directory.mkdir());
+        try {
+            PatternDatabaseBuilder.writeMissing(directory, 3, EIGHT_4_4);
+            final PatternDatabaseHeuristic loaded =
+                PatternDatabaseHeuristic.load(directory, 3, EIGHT_4_4);
+            final PatternDatabaseHeuristic built =
+                new PatternDatabaseHeuristic(
+                    PatternDatabaseBuilder.build(3, EIGHT_4_4[0]),
+                    PatternDatabaseBuilder.build(3, EIGHT_4_4[1]));
+            final Board board = new Board(3);
+            for (long seed = 0; seed < 500; seed++) {
+                board.rearrange(seed);
+                assertEquals(built.estimate(board.arrangement()),
+                             loaded.estimate(board.arrangement()));
+            }
+        } finally {
+            for (File file: directory.listFiles()) {
+                file.delete();
+            }
+            directory.delete();
+        }
+    }
+
+    /** Assert that the estimate of the given heuristic updated along the
+     * given path of the given arrangement is that of each arrangement,
+     * which is changed along the way. */
+    private static void assertUpdates(Heuristic heuristic, int[] tiles,
+                                      int[] path) {
+        int value = heuristic.value(tiles);
+        for (int tile: path) {
+            final int to = States.blank(tiles);
+            int from = 0;
+            while (tiles[from] != tile) {
+                from++;
+            }
+            tiles[to] = tile;
+            tiles[from] = 0;
+            value = heuristic.update(tiles, value, tile, from, to);
+            assertEquals(heuristic.estimate(tiles),
+                         heuristic.estimateOf(value));
+        }
+        assertEquals(0, heuristic.estimateOf(value));
+    }
+}